@@ -0,0 +1,104 @@
+package com.shagi.materialdatepicker.date;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.util.TypedValue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares drawing the day numbers of a month from the {@link DayNumberAtlas} with drawing them
+ * as text. Timings are logged under the DayNumberAtlas tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DayNumberAtlasBenchmark {
+    private static final String TAG = "DayNumberAtlas";
+    private static final int WARMUP_FRAMES = 50;
+    private static final int FRAMES = 500;
+    private static final Typeface BOLD = Typeface.create(Typeface.DEFAULT, Typeface.BOLD);
+
+    private Resources mResources;
+    private Paint mPaint;
+    private Canvas mCanvas;
+
+    @Before
+    public void setUp() {
+        mResources = InstrumentationRegistry.getTargetContext().getResources();
+        mPaint = new Paint();
+        mPaint.setAntiAlias(true);
+        mPaint.setTextAlign(Paint.Align.CENTER);
+        mPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 16,
+                mResources.getDisplayMetrics()));
+        mCanvas = new Canvas(Bitmap.createBitmap(1080, 1080, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void atlasIsSharedUntilTheTextSizeChanges() {
+        final DayNumberAtlas atlas = DayNumberAtlas.get(mPaint, mResources);
+        assertSame(atlas, DayNumberAtlas.get(mPaint, mResources));
+
+        mPaint.setTextSize(mPaint.getTextSize() * 2);
+        assertNotSame(atlas, DayNumberAtlas.get(mPaint, mResources));
+    }
+
+    @Test
+    public void atlasVersusText() {
+        final DayNumberAtlas atlas = DayNumberAtlas.get(mPaint, mResources);
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            drawText();
+            drawAtlas(atlas);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++) drawText();
+        final long textNanos = (System.nanoTime() - start) / FRAMES;
+
+        start = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++) assertTrue(drawAtlas(atlas));
+        final long atlasNanos = (System.nanoTime() - start) / FRAMES;
+
+        Log.i(TAG, "Month of day numbers: text " + textNanos + " ns, atlas " + atlasNanos + " ns");
+    }
+
+    private void drawText() {
+        for (int day = 1; day <= 31; day++) {
+            setVariant(day);
+            mCanvas.drawText(MonthView.DAY_NUMBERS[day], getX(day), getY(day), mPaint);
+        }
+    }
+
+    private boolean drawAtlas(DayNumberAtlas atlas) {
+        boolean drawn = true;
+        for (int day = 1; day <= 31; day++) {
+            setVariant(day);
+            drawn &= atlas.draw(mCanvas, day, getX(day), getY(day), mPaint);
+        }
+        return drawn;
+    }
+
+    // Mixes colors and typefaces the way a month with a selection and disabled days does
+    private void setVariant(int day) {
+        mPaint.setTypeface(day % 5 == 0 ? BOLD : Typeface.DEFAULT);
+        mPaint.setColor(day % 3 == 0 ? 0xFF999999 : 0xFF000000);
+    }
+
+    private static int getX(int day) {
+        return 80 + ((day - 1) % 7) * 140;
+    }
+
+    private static int getY(int day) {
+        return 120 + ((day - 1) / 7) * 140;
+    }
+}
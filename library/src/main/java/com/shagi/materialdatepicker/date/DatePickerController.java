@@ -16,6 +16,8 @@
 
 package com.shagi.materialdatepicker.date;
 
+import android.support.annotation.NonNull;
+
 import java.util.Calendar;
 import java.util.TimeZone;
 
@@ -24,6 +26,23 @@ import java.util.TimeZone;
  */
 public interface DatePickerController {
 
+    /**
+     * Flag set by {@link #getMonthState(int, int, int[])} for days which can not be selected
+     */
+    int DAY_STATE_OUT_OF_RANGE = 1;
+
+    /**
+     * Flag set by {@link #getMonthState(int, int, int[])} for highlighted days
+     */
+    int DAY_STATE_HIGHLIGHTED = 1 << 1;
+
+    /**
+     * Flag set by {@link #getMonthState(int, int, int[])} for days whose availability is still
+     * loading, see {@link DateRangeLimiter#getPendingMask(int, int)}. Pending days can not be
+     * selected yet, but are not out of range either.
+     */
+    int DAY_STATE_PENDING = 1 << 2;
+
     void onYearSelected(int year);
 
     void onDayOfMonthSelected(int year, int month, int day);
@@ -35,6 +54,13 @@ public interface DatePickerController {
 
     MonthAdapter.CalendarDay getSelectedDay();
 
+    /**
+     * @return the selected day as the number of days since 1970-01-01
+     */
+    default int getSelectedEpochDay() {
+        return getSelectedDay().toEpochDay();
+    }
+
     boolean isThemeDark();
 
     int getAccentColor();
@@ -51,7 +77,57 @@ public interface DatePickerController {
 
     Calendar getEndDate();
 
+    /**
+     * @return the first month of the picker as year * 12 + month
+     */
+    default int getStartMonthIndex() {
+        final Calendar startDate = getStartDate();
+        return startDate.get(Calendar.YEAR) * 12 + startDate.get(Calendar.MONTH);
+    }
+
+    /**
+     * @return the last month of the picker as year * 12 + month
+     */
+    default int getEndMonthIndex() {
+        final Calendar endDate = getEndDate();
+        return endDate.get(Calendar.YEAR) * 12 + endDate.get(Calendar.MONTH);
+    }
+
     boolean isOutOfRange(int year, int month, int day);
 
+    default boolean isOutOfRange(int epochDay) {
+        return isOutOfRange(EpochDay.year(epochDay), EpochDay.month(epochDay), EpochDay.dayOfMonth(epochDay));
+    }
+
+    /**
+     * Fills out[day - 1] with the DAY_STATE flags of every day of the given month, days without
+     * any flag set are selectable. The default falls back to the per day queries.
+     */
+    default void getMonthState(int year, int month, @NonNull int[] out) {
+        final int daysInMonth = EpochDay.daysInMonth(year, month);
+        for (int day = 1; day <= daysInMonth; day++) {
+            int state = 0;
+            if (isOutOfRange(year, month, day)) state |= DAY_STATE_OUT_OF_RANGE;
+            if (isHighlighted(year, month, day)) state |= DAY_STATE_HIGHLIGHTED;
+            out[day - 1] = state;
+        }
+    }
+
     TimeZone getTimeZone();
+
+    /**
+     * @return a non-negative number which changes whenever the state of any day of the given
+     * month may have changed, for example when limits or highlighted days covering it were set.
+     * Views compare it to skip binding a month again when nothing changed. The default of -1
+     * opts out, so views always bind again.
+     */
+    default int getStateVersion(int year, int month) {
+        return -1;
+    }
+
+    /**
+     * Called while scrolling whenever another month becomes the first visible one
+     */
+    default void onMonthScrolled(int year, int month) {
+    }
 }
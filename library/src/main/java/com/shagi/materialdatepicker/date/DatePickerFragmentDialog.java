@@ -23,8 +23,11 @@ import android.content.DialogInterface;
 import android.content.res.Configuration;
 import android.content.res.Resources;
 import android.graphics.Color;
+import android.os.AsyncTask;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.ColorInt;
 import android.support.annotation.NonNull;
 import android.support.annotation.StringRes;
@@ -54,11 +57,11 @@ import com.shagi.materialdatepicker.TypefaceHelper;
 import com.shagi.materialdatepicker.Utils;
 
 import java.text.SimpleDateFormat;
-import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.Executor;
 
 /**
  * Dialog allowing users to select a date.
@@ -82,6 +85,10 @@ public class DatePickerFragmentDialog extends DialogFragment implements
     private static final String KEY_ACCENT = "accent";
     private static final String KEY_DISMISS = "dismiss";
     private static final String KEY_AUTO_DISMISS = "auto_dismiss";
+    private static final String KEY_SHARE_MONTH_VIEWS = "share_month_views";
+    private static final String KEY_MONTH_RENDER_CACHE_SIZE = "month_render_cache_size";
+    private static final String KEY_DAY_NUMBER_ATLAS = "day_number_atlas";
+    private static final String KEY_PREFETCH_MONTHS = "prefetch_months";
     private static final String KEY_DEFAULT_VIEW = "default_view";
     private static final String KEY_TITLE = "title";
     private static final String KEY_OK_RESID = "ok_resid";
@@ -117,19 +124,24 @@ public class DatePickerFragmentDialog extends DialogFragment implements
     private TextView mSelectedDayTextView;
     private TextView mYearView;
     private TextView mMonthPickerView;
-    private DayPickerView mDayPickerView;
+    private volatile DayPickerView mDayPickerView;
     private ListPopupWindow mYearPickerPopup;
 
     private int mCurrentView = UNINITIALIZED;
 
     private int mWeekStart = mCalendar.getFirstDayOfWeek();
     private String mTitle;
-    private HashSet<Calendar> highlightedDays = new HashSet<>();
+    private volatile EpochDaySet highlightedDays = EpochDaySet.EMPTY;
+    // Changed for the affected months whenever the state of their days may have changed
+    private final MonthStateVersions mStateVersions = new MonthStateVersions();
     private boolean mThemeDark = false;
     private boolean mThemeDarkChanged = false;
     private int mAccentColor = -1;
     private boolean mDismissOnPause = false;
     private boolean mAutoDismiss = false;
+    private boolean mShareMonthViews = false;
+    private int mMonthRenderCacheSize = 0;
+    private boolean mUseDayNumberAtlas = false;
     private int mDefaultView = MONTH_AND_DAY_VIEW;
     private int mOkResid = R.string.amdp_ok;
     private String mOkString;
@@ -140,9 +152,21 @@ public class DatePickerFragmentDialog extends DialogFragment implements
     private TimeZone mTimezone;
     private DefaultDateRangeLimiter mDefaultLimiter = new DefaultDateRangeLimiter();
     private DateRangeLimiter mDateRangeLimiter = mDefaultLimiter;
+    private int mPrefetchMonths = 0;
+    private Executor mPrefetchExecutor;
+    private MonthPrefetcher mMonthPrefetcher;
 
     private HapticFeedbackController mHapticFeedbackController;
 
+    private final PagedDateRangeLimiter.OnMonthLoadedListener mMonthLoadedListener =
+            new PagedDateRangeLimiter.OnMonthLoadedListener() {
+                @Override
+                public void onMonthLoaded(int year, int month) {
+                    mStateVersions.changed(year * 12 + month, year * 12 + month);
+                    if (mDayPickerView != null) mDayPickerView.notifyMonthChanged(year, month);
+                }
+            };
+
     private boolean mDelayAnimation = true;
 
     // Accessibility strings.
@@ -231,12 +255,16 @@ public class DatePickerFragmentDialog extends DialogFragment implements
             listPosition = mDayPickerView.getMostVisiblePosition();
         }
         outState.putInt(KEY_LIST_POSITION, listPosition);
-        outState.putSerializable(KEY_HIGHLIGHTED_DAYS, highlightedDays);
+        outState.putByteArray(KEY_HIGHLIGHTED_DAYS, highlightedDays.toByteArray());
         outState.putBoolean(KEY_THEME_DARK, mThemeDark);
         outState.putBoolean(KEY_THEME_DARK_CHANGED, mThemeDarkChanged);
         outState.putInt(KEY_ACCENT, mAccentColor);
         outState.putBoolean(KEY_DISMISS, mDismissOnPause);
         outState.putBoolean(KEY_AUTO_DISMISS, mAutoDismiss);
+        outState.putBoolean(KEY_SHARE_MONTH_VIEWS, mShareMonthViews);
+        outState.putInt(KEY_MONTH_RENDER_CACHE_SIZE, mMonthRenderCacheSize);
+        outState.putBoolean(KEY_DAY_NUMBER_ATLAS, mUseDayNumberAtlas);
+        outState.putInt(KEY_PREFETCH_MONTHS, mPrefetchMonths);
         outState.putInt(KEY_DEFAULT_VIEW, mDefaultView);
         outState.putString(KEY_TITLE, mTitle);
         outState.putInt(KEY_OK_RESID, mOkResid);
@@ -258,13 +286,18 @@ public class DatePickerFragmentDialog extends DialogFragment implements
             mWeekStart = savedInstanceState.getInt(KEY_WEEK_START);
             currentView = savedInstanceState.getInt(KEY_CURRENT_VIEW);
             listPosition = savedInstanceState.getInt(KEY_LIST_POSITION);
-            //noinspection unchecked
-            highlightedDays = (HashSet<Calendar>) savedInstanceState.getSerializable(KEY_HIGHLIGHTED_DAYS);
+            highlightedDays = EpochDaySet.fromByteArray(savedInstanceState.getByteArray(KEY_HIGHLIGHTED_DAYS));
             mThemeDark = savedInstanceState.getBoolean(KEY_THEME_DARK);
             mThemeDarkChanged = savedInstanceState.getBoolean(KEY_THEME_DARK_CHANGED);
             mAccentColor = savedInstanceState.getInt(KEY_ACCENT);
             mDismissOnPause = savedInstanceState.getBoolean(KEY_DISMISS);
             mAutoDismiss = savedInstanceState.getBoolean(KEY_AUTO_DISMISS);
+            mShareMonthViews = savedInstanceState.getBoolean(KEY_SHARE_MONTH_VIEWS);
+            mMonthRenderCacheSize = savedInstanceState.getInt(KEY_MONTH_RENDER_CACHE_SIZE);
+            mUseDayNumberAtlas = savedInstanceState.getBoolean(KEY_DAY_NUMBER_ATLAS);
+            mPrefetchMonths = savedInstanceState.getInt(KEY_PREFETCH_MONTHS);
+            // Executors can not be saved, a custom one has to be set again after a restore
+            if (mPrefetchExecutor == null) mPrefetchExecutor = AsyncTask.THREAD_POOL_EXECUTOR;
             mTitle = savedInstanceState.getString(KEY_TITLE);
             mOkResid = savedInstanceState.getInt(KEY_OK_RESID);
             mOkString = savedInstanceState.getString(KEY_OK_STRING);
@@ -288,9 +321,11 @@ public class DatePickerFragmentDialog extends DialogFragment implements
             } else {
                 mDefaultLimiter = new DefaultDateRangeLimiter();
             }
+            updateMonthPrefetcher();
         }
 
         mDefaultLimiter.setController(this);
+        attachPagedLimiter();
 
         int viewRes = R.layout.amdp_date_picker_dialog;
         View view = inflater.inflate(viewRes, container, false);
@@ -311,6 +346,9 @@ public class DatePickerFragmentDialog extends DialogFragment implements
 
         final Activity activity = getActivity();
         mDayPickerView = new SimpleDayPickerView(activity, this);
+        if (mShareMonthViews) mDayPickerView.setRecycledViewPool(MonthViewPool.get(activity));
+        if (mMonthRenderCacheSize > 0) mDayPickerView.setMonthRenderCacheSize(mMonthRenderCacheSize);
+        if (mUseDayNumberAtlas) mDayPickerView.setUseDayNumberAtlas(true);
 
         YearPickerView yearPickerView = new YearPickerView(activity, this);
 
@@ -529,6 +567,61 @@ public class DatePickerFragmentDialog extends DialogFragment implements
         mAutoDismiss = autoDismiss;
     }
 
+    /**
+     * Set whether month views should be kept for the next picker opened in the same activity,
+     * so later pickers open without building them again
+     *
+     * @param shareMonthViews true if month views should be shared between pickers
+     */
+    @SuppressWarnings("unused")
+    public void setShareMonthViews(boolean shareMonthViews) {
+        mShareMonthViews = shareMonthViews;
+    }
+
+    /**
+     * Keeps rendered months as bitmaps, up to the given number of bytes, so flinging through the
+     * months and scrolling back only draws bitmaps. A month is rendered again when its selection
+     * or available days change. A month takes about width * height * 4 bytes.
+     *
+     * @param maxBytes the total size of the rendered months kept, 0 or less than one month to draw
+     *                 every frame
+     */
+    @SuppressWarnings("unused")
+    public void setMonthRenderCacheSize(int maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("The cache size can not be negative");
+        }
+        mMonthRenderCacheSize = maxBytes;
+        if (mDayPickerView != null) mDayPickerView.setMonthRenderCacheSize(maxBytes);
+    }
+
+    /**
+     * Draws the day numbers from glyphs rasterized once per typeface, text size and density,
+     * instead of laying out their text for every day on every frame.
+     *
+     * @param useDayNumberAtlas true to draw the day numbers from pre-rasterized glyphs
+     */
+    @SuppressWarnings("unused")
+    public void setUseDayNumberAtlas(boolean useDayNumberAtlas) {
+        mUseDayNumberAtlas = useDayNumberAtlas;
+        if (mDayPickerView != null) mDayPickerView.setUseDayNumberAtlas(useDayNumberAtlas);
+    }
+
+    /**
+     * Builds month views for this picker while the main thread is idle, before it is shown.
+     * Call it from the main thread once the picker is configured; this also turns on
+     * setShareMonthViews(true).
+     *
+     * @param activity the activity the picker will be shown in
+     * @param count    the number of month views to build
+     */
+    @SuppressWarnings("unused")
+    public void prewarmMonthViews(@NonNull Activity activity, int count) {
+        mShareMonthViews = true;
+        // Same adapter as the SimpleDayPickerView the picker shows
+        MonthViewPool.prewarm(activity, new SimpleMonthAdapter(this), count);
+    }
+
     /**
      * Set whether the dark theme should be used
      *
@@ -642,10 +735,7 @@ public class DatePickerFragmentDialog extends DialogFragment implements
     @SuppressWarnings("unused")
     public void setYearRange(int startYear, int endYear) {
         mDefaultLimiter.setYearRange(startYear, endYear);
-
-        if (mDayPickerView != null) {
-            mDayPickerView.onChange();
-        }
+        onLimitsChanged();
     }
 
     /**
@@ -656,11 +746,14 @@ public class DatePickerFragmentDialog extends DialogFragment implements
      */
     @SuppressWarnings("unused")
     public void setMinDate(Calendar calendar) {
-        mDefaultLimiter.setMinDate(calendar);
-
-        if (mDayPickerView != null) {
-            mDayPickerView.onChange();
+        final int oldBound;
+        final int newBound;
+        synchronized (mDefaultLimiter) {
+            oldBound = mDefaultLimiter.getLowerBound();
+            mDefaultLimiter.setMinDate(calendar);
+            newBound = mDefaultLimiter.getLowerBound();
         }
+        onLimitsChanged(Math.min(oldBound, newBound), Math.max(oldBound, newBound));
     }
 
     public void setMinDate(long millis) {
@@ -685,11 +778,14 @@ public class DatePickerFragmentDialog extends DialogFragment implements
      */
     @SuppressWarnings("unused")
     public void setMaxDate(Calendar calendar) {
-        mDefaultLimiter.setMaxDate(calendar);
-
-        if (mDayPickerView != null) {
-            mDayPickerView.onChange();
+        final int oldBound;
+        final int newBound;
+        synchronized (mDefaultLimiter) {
+            oldBound = mDefaultLimiter.getUpperBound();
+            mDefaultLimiter.setMaxDate(calendar);
+            newBound = mDefaultLimiter.getUpperBound();
         }
+        onLimitsChanged(Math.min(oldBound, newBound), Math.max(oldBound, newBound));
     }
 
     public void setMaxDate(long millis) {
@@ -713,9 +809,47 @@ public class DatePickerFragmentDialog extends DialogFragment implements
      */
     @SuppressWarnings("unused")
     public void setHighlightedDays(Calendar[] highlightedDays) {
-        for (Calendar highlightedDay : highlightedDays) Utils.trimToMidnight(highlightedDay);
-        this.highlightedDays.addAll(Arrays.asList(highlightedDays));
-        if (mDayPickerView != null) mDayPickerView.onChange();
+        final EpochDaySet days = EpochDaySet.of(highlightedDays);
+        synchronized (this) {
+            this.highlightedDays = this.highlightedDays.union(days);
+        }
+        onLimitsChanged(days);
+    }
+
+    /**
+     * Redraws every month after the limits changed. Their setters may be called from any
+     * thread, the redraw always happens on the main thread.
+     */
+    private void onLimitsChanged() {
+        onLimitsChanged(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Redraws the months of the given days after their limits or highlights changed
+     */
+    private void onLimitsChanged(@NonNull EpochDaySet changedDays) {
+        if (changedDays.isEmpty()) return;
+        onLimitsChanged(changedDays.first(), changedDays.last());
+    }
+
+    /**
+     * Redraws the months from the first to the last changed epoch day, and adds or removes
+     * months if the start or end date moved
+     */
+    private void onLimitsChanged(final int firstDay, final int lastDay) {
+        mStateVersions.changedDays(firstDay, lastDay);
+        final DayPickerView dayPickerView = mDayPickerView;
+        if (dayPickerView == null) return;
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            dayPickerView.onDaysChanged(firstDay, lastDay);
+        } else {
+            dayPickerView.post(new Runnable() {
+                @Override
+                public void run() {
+                    dayPickerView.onDaysChanged(firstDay, lastDay);
+                }
+            });
+        }
     }
 
     /**
@@ -724,19 +858,30 @@ public class DatePickerFragmentDialog extends DialogFragment implements
     @SuppressWarnings("unused")
     public Calendar[] getHighlightedDays() {
         if (highlightedDays.isEmpty()) return null;
-        Calendar[] output = highlightedDays.toArray(new Calendar[0]);
-        Arrays.sort(output);
-        return output;
+        return highlightedDays.toCalendars(getTimeZone());
     }
 
     @Override
     public boolean isHighlighted(int year, int month, int day) {
-        Calendar date = Calendar.getInstance();
-        date.set(Calendar.YEAR, year);
-        date.set(Calendar.MONTH, month);
-        date.set(Calendar.DAY_OF_MONTH, day);
-        Utils.trimToMidnight(date);
-        return highlightedDays.contains(date);
+        return highlightedDays.contains(EpochDay.of(year, month, day));
+    }
+
+    @Override
+    public void getMonthState(int year, int month, @NonNull int[] out) {
+        final int firstDay = EpochDay.of(year, month, 1);
+        final int daysInMonth = EpochDay.daysInMonth(year, month);
+        final int outOfRange = mMonthPrefetcher != null
+                ? mMonthPrefetcher.getOutOfRangeMask(year, month)
+                : mDateRangeLimiter.getOutOfRangeMask(year, month);
+        final int pending = mDateRangeLimiter.getPendingMask(year, month);
+        final int highlighted = highlightedDays.mask(firstDay, daysInMonth);
+        for (int i = 0; i < daysInMonth; i++) {
+            int state = 0;
+            if ((outOfRange & (1 << i)) != 0) state |= DAY_STATE_OUT_OF_RANGE;
+            if ((pending & (1 << i)) != 0) state |= DAY_STATE_PENDING;
+            if ((highlighted & (1 << i)) != 0) state |= DAY_STATE_HIGHLIGHTED;
+            out[i] = state;
+        }
     }
 
     /**
@@ -747,18 +892,36 @@ public class DatePickerFragmentDialog extends DialogFragment implements
      */
     @SuppressWarnings("unused")
     public void setSelectableDays(Calendar[] selectableDays) {
-        mDefaultLimiter.setSelectableDays(selectableDays);
-        if (mDayPickerView != null) mDayPickerView.onChange();
+        final boolean restricted;
+        synchronized (mDefaultLimiter) {
+            restricted = mDefaultLimiter.hasSelectableDays();
+            mDefaultLimiter.setSelectableDays(selectableDays);
+        }
+        // The first selectable days disable every other day
+        if (restricted) onLimitsChanged(EpochDaySet.of(selectableDays));
+        else onLimitsChanged();
     }
 
     /**
+     * Selectable ranges are expanded into one Calendar per day, use getSelectableRanges() for long ranges.
+     *
      * @return an Array of Calendar objects containing the list with selectable items. null if no restriction is set
+     * @throws IllegalStateException if the ranges hold too many days to expand
      */
     @SuppressWarnings("unused")
     public Calendar[] getSelectableDays() {
         return mDefaultLimiter.getSelectableDays();
     }
 
+    /**
+     * @return two Arrays of Calendar objects, the first day of each selectable range and the last day of each range,
+     * as passed to setSelectableRanges(). Selectable days are ranges of one day. null if no restriction is set
+     */
+    @SuppressWarnings("unused")
+    public Calendar[][] getSelectableRanges() {
+        return mDefaultLimiter.getSelectableRanges();
+    }
+
     /**
      * Sets a list of days that are not selectable in the picker
      * Setting this value will take precedence over using setMinDate() and setMaxDate(), but stacks with setSelectableDays()
@@ -768,17 +931,84 @@ public class DatePickerFragmentDialog extends DialogFragment implements
     @SuppressWarnings("unused")
     public void setDisabledDays(Calendar[] disabledDays) {
         mDefaultLimiter.setDisabledDays(disabledDays);
-        if (mDayPickerView != null) mDayPickerView.onChange();
+        onLimitsChanged(EpochDaySet.of(disabledDays));
+    }
+
+    /**
+     * Sets ranges of days which are the only valid selections, in addition to any days passed to
+     * setSelectableDays(). Only the ranges are stored, so long stretches of days are cheap.
+     *
+     * @param rangeStarts an Array of Calendar Objects containing the first day of each range
+     * @param rangeEnds   an Array of Calendar Objects containing the last day of each range, inclusive
+     */
+    @SuppressWarnings("unused")
+    public void setSelectableRanges(Calendar[] rangeStarts, Calendar[] rangeEnds) {
+        final boolean restricted;
+        synchronized (mDefaultLimiter) {
+            restricted = mDefaultLimiter.hasSelectableDays();
+            mDefaultLimiter.setSelectableRanges(rangeStarts, rangeEnds);
+        }
+        if (restricted) onLimitsChanged(EpochDaySet.ofRanges(rangeStarts, rangeEnds));
+        else onLimitsChanged();
+    }
+
+    /**
+     * Sets ranges of days that are not selectable in the picker, in addition to any days passed to
+     * setDisabledDays(). Only the ranges are stored, so long stretches of days are cheap.
+     *
+     * @param rangeStarts an Array of Calendar Objects containing the first day of each range
+     * @param rangeEnds   an Array of Calendar Objects containing the last day of each range, inclusive
+     */
+    @SuppressWarnings("unused")
+    public void setDisabledRanges(Calendar[] rangeStarts, Calendar[] rangeEnds) {
+        mDefaultLimiter.setDisabledRanges(rangeStarts, rangeEnds);
+        onLimitsChanged(EpochDaySet.ofRanges(rangeStarts, rangeEnds));
+    }
+
+    /**
+     * Sets recurring rules for the only valid selections, such as every weekday, in addition to
+     * any selectable days or ranges. Rules are evaluated per day and never expanded into dates.
+     *
+     * @param rules an Array of DateRule Objects matching the selectable days
+     */
+    @SuppressWarnings("unused")
+    public void setSelectableRules(DateRule[] rules) {
+        mDefaultLimiter.setSelectableRules(rules);
+        onLimitsChanged();
+    }
+
+    /**
+     * Sets recurring rules for days that are not selectable in the picker, such as weekends or
+     * the first Monday of each month, in addition to any disabled days or ranges.
+     *
+     * @param rules an Array of DateRule Objects matching the disabled days
+     */
+    @SuppressWarnings("unused")
+    public void setDisabledRules(DateRule[] rules) {
+        mDefaultLimiter.setDisabledRules(rules);
+        onLimitsChanged();
     }
 
     /**
+     * Disabled ranges are expanded into one Calendar per day, use getDisabledRanges() for long ranges.
+     *
      * @return an Array of Calendar objects containing the list of days that are not selectable. null if no restriction is set
+     * @throws IllegalStateException if the ranges hold too many days to expand
      */
     @SuppressWarnings("unused")
     public Calendar[] getDisabledDays() {
         return mDefaultLimiter.getDisabledDays();
     }
 
+    /**
+     * @return two Arrays of Calendar objects, the first day of each disabled range and the last day of each range,
+     * as passed to setDisabledRanges(). Disabled days are ranges of one day. null if no restriction is set
+     */
+    @SuppressWarnings("unused")
+    public Calendar[][] getDisabledRanges() {
+        return mDefaultLimiter.getDisabledRanges();
+    }
+
     /**
      * Provide a DateRangeLimiter for full control over which dates are enabled and disabled in the picker
      *
@@ -787,6 +1017,104 @@ public class DatePickerFragmentDialog extends DialogFragment implements
     @SuppressWarnings("unused")
     public void setDateRangeLimiter(DateRangeLimiter dateRangeLimiter) {
         mDateRangeLimiter = dateRangeLimiter;
+        mStateVersions.changedAll();
+        attachPagedLimiter();
+        updateMonthPrefetcher();
+    }
+
+    /**
+     * Computes the availability of the months around the displayed one on a background thread
+     * while scrolling, so drawing them does not have to query the DateRangeLimiter. Only applies
+     * to a custom limiter set through setDateRangeLimiter(), which must then be safe to query
+     * from a background thread. A PagedDateRangeLimiter is never prefetched: it is not thread
+     * safe, and it already answers from memory while loading months asynchronously.
+     * <p/>
+     * The number of months is kept when the picker is restored, but the executor can not be: set
+     * it again after a restore, or the prefetch work runs on AsyncTask's thread pool.
+     *
+     * @param months   the number of months to prefetch before and after the displayed month, 0
+     *                 to disable prefetching
+     * @param executor the Executor running the prefetch work
+     */
+    @SuppressWarnings("unused")
+    public void setMonthPrefetch(int months, @NonNull Executor executor) {
+        if (months < 0) {
+            throw new IllegalArgumentException("The number of months can not be negative");
+        }
+        mPrefetchMonths = months;
+        mPrefetchExecutor = executor;
+        updateMonthPrefetcher();
+    }
+
+    /**
+     * Same as setMonthPrefetch(int, Executor), running the prefetch work on AsyncTask's thread pool
+     */
+    @SuppressWarnings("unused")
+    public void setMonthPrefetch(int months) {
+        setMonthPrefetch(months, AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * @return the MonthPrefetcher in use, to read its hit and miss counts. null if months are
+     * not prefetched
+     */
+    @SuppressWarnings("unused")
+    public MonthPrefetcher getMonthPrefetcher() {
+        return mMonthPrefetcher;
+    }
+
+    /**
+     * Redraws every month after the availability of a custom limiter set through
+     * setDateRangeLimiter() changed, dropping the months prefetched from it. May be called from
+     * any thread.
+     */
+    @SuppressWarnings("unused")
+    public void notifyDateRangeLimiterChanged() {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            new Handler(Looper.getMainLooper()).post(new Runnable() {
+                @Override
+                public void run() {
+                    notifyDateRangeLimiterChanged();
+                }
+            });
+            return;
+        }
+        if (mMonthPrefetcher != null) mMonthPrefetcher.invalidate();
+        onLimitsChanged();
+    }
+
+    /**
+     * Lets a PagedDateRangeLimiter use the picker's time zone and redraw the months it loads
+     */
+    private void attachPagedLimiter() {
+        if (mDateRangeLimiter instanceof PagedDateRangeLimiter) {
+            final PagedDateRangeLimiter limiter = (PagedDateRangeLimiter) mDateRangeLimiter;
+            limiter.setController(this);
+            limiter.setPickerListener(mMonthLoadedListener);
+        }
+    }
+
+    private void updateMonthPrefetcher() {
+        if (mPrefetchMonths > 0 && mDateRangeLimiter != mDefaultLimiter
+                && !(mDateRangeLimiter instanceof PagedDateRangeLimiter)) {
+            mMonthPrefetcher = new MonthPrefetcher(mDateRangeLimiter, mPrefetchMonths, mPrefetchExecutor);
+        } else {
+            mMonthPrefetcher = null;
+        }
+    }
+
+    @Override
+    public void onMonthScrolled(int year, int month) {
+        if (mMonthPrefetcher != null) mMonthPrefetcher.prefetchAround(year, month);
+    }
+
+    /**
+     * @return the DateRangeLimiter in use, a custom one set through setDateRangeLimiter() or the
+     * one restored with the picker's state
+     */
+    @SuppressWarnings("unused")
+    public DateRangeLimiter getDateRangeLimiter() {
+        return mDateRangeLimiter;
     }
 
     /**
@@ -852,6 +1180,7 @@ public class DatePickerFragmentDialog extends DialogFragment implements
         YEAR_FORMAT.setTimeZone(timeZone);
         MONTH_FORMAT.setTimeZone(timeZone);
         DAY_FORMAT.setTimeZone(timeZone);
+        mStateVersions.changedAll();
     }
 
     @SuppressWarnings("unused")
@@ -955,6 +1284,16 @@ public class DatePickerFragmentDialog extends DialogFragment implements
         return new MonthAdapter.CalendarDay(mCalendar, getTimeZone());
     }
 
+    @Override
+    public int getStateVersion(int year, int month) {
+        return mStateVersions.get(year * 12 + month);
+    }
+
+    @Override
+    public int getSelectedEpochDay() {
+        return EpochDay.of(mCalendar);
+    }
+
     @Override
     public Calendar getStartDate() {
         return mDateRangeLimiter.getStartDate();
@@ -965,6 +1304,16 @@ public class DatePickerFragmentDialog extends DialogFragment implements
         return mDateRangeLimiter.getEndDate();
     }
 
+    @Override
+    public int getStartMonthIndex() {
+        return mDateRangeLimiter.getStartMonthIndex();
+    }
+
+    @Override
+    public int getEndMonthIndex() {
+        return mDateRangeLimiter.getEndMonthIndex();
+    }
+
     @Override
     public int getMinYear() {
         return mDateRangeLimiter.getMinYear();
@@ -981,6 +1330,11 @@ public class DatePickerFragmentDialog extends DialogFragment implements
         return mDateRangeLimiter.isOutOfRange(year, month, day);
     }
 
+    @Override
+    public boolean isOutOfRange(int epochDay) {
+        return mDateRangeLimiter.isOutOfRange(epochDay);
+    }
+
     @Override
     public int getFirstDayOfWeek() {
         return mWeekStart;
@@ -33,8 +33,59 @@ public interface DateRangeLimiter extends Parcelable {
     @NonNull
     Calendar getEndDate();
 
+    /**
+     * @return the month of {@link #getStartDate()} as year * 12 + month. This is asked for on
+     * every bind and scroll, override it to answer without building a Calendar.
+     */
+    default int getStartMonthIndex() {
+        final Calendar startDate = getStartDate();
+        return startDate.get(Calendar.YEAR) * 12 + startDate.get(Calendar.MONTH);
+    }
+
+    /**
+     * @return the month of {@link #getEndDate()} as year * 12 + month. This is asked for on
+     * every bind and scroll, override it to answer without building a Calendar.
+     */
+    default int getEndMonthIndex() {
+        final Calendar endDate = getEndDate();
+        return endDate.get(Calendar.YEAR) * 12 + endDate.get(Calendar.MONTH);
+    }
+
     boolean isOutOfRange(int year, int month, int day);
 
+    /**
+     * Same as {@link #isOutOfRange(int, int, int)}, for a day given as an {@link EpochDay}.
+     * This is queried for every visible day on every draw, override it to answer without
+     * allocating.
+     */
+    default boolean isOutOfRange(int epochDay) {
+        return isOutOfRange(EpochDay.year(epochDay), EpochDay.month(epochDay), EpochDay.dayOfMonth(epochDay));
+    }
+
+    /**
+     * Returns a mask with bit (day - 1) set for every out of range day of the given month. Month
+     * views ask for this once per month, the default falls back to
+     * {@link #isOutOfRange(int, int, int)} for every day.
+     */
+    default int getOutOfRangeMask(int year, int month) {
+        final int daysInMonth = EpochDay.daysInMonth(year, month);
+        int mask = 0;
+        for (int day = 1; day <= daysInMonth; day++) {
+            if (isOutOfRange(year, month, day)) mask |= 1 << (day - 1);
+        }
+        return mask;
+    }
+
+    /**
+     * Returns a mask with bit (day - 1) set for every day of the given month whose availability
+     * is not known yet, for example because it is still loading. These days are drawn as pending
+     * rather than out of range, and should be reported by {@link #isOutOfRange(int, int, int)} so
+     * they can not be selected. The default has no pending days.
+     */
+    default int getPendingMask(int year, int month) {
+        return 0;
+    }
+
     @NonNull
     Calendar setToNearestDate(@NonNull Calendar day);
 }
\ No newline at end of file
@@ -0,0 +1,235 @@
+package com.shagi.materialdatepicker.date;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+
+import java.util.Calendar;
+
+/**
+ * A recurring set of days, such as "every weekend" or "the first Monday of each month".
+ * Rules are answered with day-of-week and day-of-month arithmetic, so they never have to be
+ * expanded into individual dates, whatever the year range of the picker.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class DateRule implements Parcelable {
+    /**
+     * Ordinal to use with {@link #nthDayOfWeek(int, int)} to match the last occurrence in a month
+     */
+    public static final int LAST = -1;
+
+    private static final int TYPE_DAYS_OF_WEEK = 0;
+    private static final int TYPE_NTH_DAY_OF_WEEK = 1;
+    private static final int TYPE_EVERY_N_DAYS = 2;
+
+    // Months searched by nextMatch/previousMatch, a fifth weekday always occurs within a year
+    private static final int MAX_MONTHS_SEARCHED = 12;
+
+    private final int mType;
+    // Bit (dayOfWeek - 1) set for every matching Calendar.SUNDAY to Calendar.SATURDAY
+    private final int mDaysOfWeek;
+    private final int mOrdinal;
+    private final int mStartDay;
+    private final int mInterval;
+
+    private DateRule(int type, int daysOfWeek, int ordinal, int startDay, int interval) {
+        mType = type;
+        mDaysOfWeek = daysOfWeek;
+        mOrdinal = ordinal;
+        mStartDay = startDay;
+        mInterval = interval;
+    }
+
+    /**
+     * @param daysOfWeek the matching days, Calendar.SUNDAY to Calendar.SATURDAY
+     * @return a rule matching every week on the given days
+     */
+    @NonNull
+    public static DateRule daysOfWeek(@NonNull int... daysOfWeek) {
+        if (daysOfWeek.length == 0) {
+            throw new IllegalArgumentException("At least one day of the week is required");
+        }
+        int mask = 0;
+        for (int dayOfWeek : daysOfWeek) mask |= dayOfWeekBit(dayOfWeek);
+        return new DateRule(TYPE_DAYS_OF_WEEK, mask, 0, 0, 0);
+    }
+
+    /**
+     * @param ordinal   which occurrence in the month to match, 1 to 5 or {@link #LAST}
+     * @param dayOfWeek the matching day, Calendar.SUNDAY to Calendar.SATURDAY
+     * @return a rule matching the nth occurrence of a weekday in every month
+     */
+    @NonNull
+    public static DateRule nthDayOfWeek(int ordinal, int dayOfWeek) {
+        if (ordinal != LAST && (ordinal < 1 || ordinal > 5)) {
+            throw new IllegalArgumentException("Ordinal must be between 1 and 5, or LAST");
+        }
+        return new DateRule(TYPE_NTH_DAY_OF_WEEK, dayOfWeekBit(dayOfWeek), ordinal, 0, 0);
+    }
+
+    /**
+     * @param start    the first matching day
+     * @param interval the number of days between two matches
+     * @return a rule matching the start day and every interval days after it
+     */
+    @NonNull
+    public static DateRule everyNDays(@NonNull Calendar start, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be at least one day");
+        }
+        return new DateRule(TYPE_EVERY_N_DAYS, 0, 0, EpochDay.of(start), interval);
+    }
+
+    private static int dayOfWeekBit(int dayOfWeek) {
+        if (dayOfWeek < Calendar.SUNDAY || dayOfWeek > Calendar.SATURDAY) {
+            throw new IllegalArgumentException("Value must be between Calendar.SUNDAY and " +
+                    "Calendar.SATURDAY");
+        }
+        return 1 << (dayOfWeek - 1);
+    }
+
+    /**
+     * @return true if the rule matches the given {@link EpochDay}
+     */
+    public boolean matches(int epochDay) {
+        switch (mType) {
+            case TYPE_DAYS_OF_WEEK:
+                return (mDaysOfWeek & (1 << (EpochDay.dayOfWeek(epochDay) - 1))) != 0;
+            case TYPE_NTH_DAY_OF_WEEK:
+                return occurrenceInMonth(EpochDay.year(epochDay), EpochDay.month(epochDay)) == epochDay;
+            default:
+                return epochDay >= mStartDay && (epochDay - mStartDay) % mInterval == 0;
+        }
+    }
+
+    /**
+     * @return the first matching day on or after the given day, or {@link EpochDaySet#NONE}
+     */
+    int nextMatch(int epochDay) {
+        switch (mType) {
+            case TYPE_DAYS_OF_WEEK:
+                for (int day = epochDay; day < epochDay + 7; day++) {
+                    if (matches(day)) return day;
+                }
+                return EpochDaySet.NONE;
+            case TYPE_NTH_DAY_OF_WEEK:
+                final int year = EpochDay.year(epochDay);
+                final int month = EpochDay.month(epochDay);
+                for (int i = 0; i < MAX_MONTHS_SEARCHED; i++) {
+                    final int day = occurrenceInMonth(year, month + i);
+                    if (day != EpochDaySet.NONE && day >= epochDay) return day;
+                }
+                return EpochDaySet.NONE;
+            default:
+                if (epochDay <= mStartDay) return mStartDay;
+                final long steps = ((long) epochDay - mStartDay + mInterval - 1) / mInterval;
+                final long day = mStartDay + steps * mInterval;
+                return day > Integer.MAX_VALUE ? EpochDaySet.NONE : (int) day;
+        }
+    }
+
+    /**
+     * @return the last matching day on or before the given day, or {@link EpochDaySet#NONE}
+     */
+    int previousMatch(int epochDay) {
+        switch (mType) {
+            case TYPE_DAYS_OF_WEEK:
+                for (int day = epochDay; day > epochDay - 7; day--) {
+                    if (matches(day)) return day;
+                }
+                return EpochDaySet.NONE;
+            case TYPE_NTH_DAY_OF_WEEK:
+                final int year = EpochDay.year(epochDay);
+                final int month = EpochDay.month(epochDay);
+                for (int i = 0; i < MAX_MONTHS_SEARCHED; i++) {
+                    final int day = occurrenceInMonth(year, month - i);
+                    if (day != EpochDaySet.NONE && day <= epochDay) return day;
+                }
+                return EpochDaySet.NONE;
+            default:
+                if (epochDay < mStartDay) return EpochDaySet.NONE;
+                return mStartDay + (epochDay - mStartDay) / mInterval * mInterval;
+        }
+    }
+
+    /**
+     * @return the first day on or after the given day the rule does not match, or
+     * {@link EpochDaySet#NONE} if it matches every day from there on
+     */
+    int nextMismatch(int epochDay) {
+        switch (mType) {
+            case TYPE_DAYS_OF_WEEK:
+                for (int day = epochDay; day < epochDay + 7; day++) {
+                    if (!matches(day)) return day;
+                }
+                return EpochDaySet.NONE;
+            case TYPE_NTH_DAY_OF_WEEK:
+                // Two matches are at least four weeks apart, so the day after a match never matches
+                return matches(epochDay) ? epochDay + 1 : epochDay;
+            default:
+                if (!matches(epochDay)) return epochDay;
+                return mInterval == 1 ? EpochDaySet.NONE : epochDay + 1;
+        }
+    }
+
+    /**
+     * @return the last day on or before the given day the rule does not match, or
+     * {@link EpochDaySet#NONE} if it matches every day up to there
+     */
+    int previousMismatch(int epochDay) {
+        switch (mType) {
+            case TYPE_DAYS_OF_WEEK:
+                for (int day = epochDay; day > epochDay - 7; day--) {
+                    if (!matches(day)) return day;
+                }
+                return EpochDaySet.NONE;
+            case TYPE_NTH_DAY_OF_WEEK:
+                return matches(epochDay) ? epochDay - 1 : epochDay;
+            default:
+                if (!matches(epochDay)) return epochDay;
+                if (mInterval > 1) return epochDay - 1;
+                // Every day from the start matches
+                return mStartDay == Integer.MIN_VALUE ? EpochDaySet.NONE : mStartDay - 1;
+        }
+    }
+
+    /**
+     * @return the day matched by an nth day of week rule in the given month, or
+     * {@link EpochDaySet#NONE} if the month has no such day. The month may be out of 0-11.
+     */
+    private int occurrenceInMonth(int year, int month) {
+        final int firstDay = EpochDay.of(year, month, 1);
+        final int daysInMonth = EpochDay.of(year, month + 1, 1) - firstDay;
+        final int dayOfWeek = Integer.numberOfTrailingZeros(mDaysOfWeek) + 1;
+        final int offset = EpochDay.floorMod(dayOfWeek - EpochDay.dayOfWeek(firstDay), 7);
+        final int index = mOrdinal == LAST
+                ? offset + (daysInMonth - 1 - offset) / 7 * 7
+                : offset + (mOrdinal - 1) * 7;
+        return index < daysInMonth ? firstDay + index : EpochDaySet.NONE;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel out, int flags) {
+        out.writeInt(mType);
+        out.writeInt(mDaysOfWeek);
+        out.writeInt(mOrdinal);
+        out.writeInt(mStartDay);
+        out.writeInt(mInterval);
+    }
+
+    public static final Parcelable.Creator<DateRule> CREATOR
+            = new Parcelable.Creator<DateRule>() {
+        public DateRule createFromParcel(Parcel in) {
+            return new DateRule(in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+        }
+
+        public DateRule[] newArray(int size) {
+            return new DateRule[size];
+        }
+    };
+}
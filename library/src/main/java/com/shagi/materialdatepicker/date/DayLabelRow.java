@@ -0,0 +1,86 @@
+package com.shagi.materialdatepicker.date;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Picture;
+import android.graphics.Typeface;
+import android.support.annotation.NonNull;
+
+/**
+ * The weekday label row of a month, recorded once into a {@link Picture} and replayed by every
+ * month view drawn with the same labels, layout and paint.
+ * <p/>
+ * Only used from the main thread.
+ */
+final class DayLabelRow {
+    private static final int DAYS_IN_WEEK = 7;
+
+    private final String[] mLabels;
+    private final int mWeekStart;
+    private final int mWidth;
+    private final int mEdgePadding;
+    private final int mY;
+    private final int mColor;
+    private final float mTextSize;
+    private final Typeface mTypeface;
+    private final Picture mPicture = new Picture();
+
+    /**
+     * @param labels    the labels by {@link java.util.Calendar#DAY_OF_WEEK}, index 0 unused
+     * @param weekStart the first day of the week, {@link java.util.Calendar#SUNDAY} to
+     *                  {@link java.util.Calendar#SATURDAY}
+     * @param y         the baseline of the labels
+     */
+    DayLabelRow(@NonNull String[] labels, int weekStart, int width, int edgePadding, int y,
+                @NonNull Paint paint) {
+        mLabels = labels;
+        mWeekStart = weekStart;
+        mWidth = width;
+        mEdgePadding = edgePadding;
+        mY = y;
+        mColor = paint.getColor();
+        mTextSize = paint.getTextSize();
+        mTypeface = paint.getTypeface();
+
+        final Canvas canvas = mPicture.beginRecording(width, y + (int) Math.ceil(mTextSize));
+        draw(canvas, labels, weekStart, width, edgePadding, y, paint);
+        mPicture.endRecording();
+    }
+
+    /**
+     * @return true if this row was recorded from the same labels, layout and paint
+     */
+    boolean matches(@NonNull String[] labels, int weekStart, int width, int edgePadding, int y,
+                    @NonNull Paint paint) {
+        return mLabels == labels && mWeekStart == weekStart && mWidth == width
+                && mEdgePadding == edgePadding && mY == y && mColor == paint.getColor()
+                && mTextSize == paint.getTextSize() && mTypeface == paint.getTypeface();
+    }
+
+    void replay(@NonNull Canvas canvas) {
+        canvas.drawPicture(mPicture);
+    }
+
+    /**
+     * Draws the labels directly, for canvases which can not replay a picture
+     */
+    static void draw(@NonNull Canvas canvas, @NonNull String[] labels, int weekStart, int width,
+                     int edgePadding, int y, @NonNull Paint paint) {
+        int dayWidthHalf = (width - edgePadding * 2) / (DAYS_IN_WEEK * 2);
+
+        for (int i = 0; i < DAYS_IN_WEEK; i++) {
+            int x = (2 * i + 1) * dayWidthHalf + edgePadding;
+            canvas.drawText(labels[dayOfWeekAt(i, weekStart)], x, y, paint);
+        }
+    }
+
+    /**
+     * @param column    the column, 0-6
+     * @param weekStart the first day of the week, {@link java.util.Calendar#SUNDAY} to
+     *                  {@link java.util.Calendar#SATURDAY}
+     * @return the {@link java.util.Calendar#DAY_OF_WEEK} labelled in the column
+     */
+    static int dayOfWeekAt(int column, int weekStart) {
+        return (column + weekStart - 1) % DAYS_IN_WEEK + 1;
+    }
+}
@@ -0,0 +1,138 @@
+package com.shagi.materialdatepicker.date;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.support.annotation.NonNull;
+
+/**
+ * The day numbers 1 to 31 rasterized once per typeface into alpha masks, so a month draws its
+ * days with {@code drawBitmap} instead of laying out text for every cell. A mask is drawn with
+ * the color of the paint, so the few colors a day can have share one mask and changing colors
+ * or the theme only changes the paint. The atlas is built again when the text size, font scale
+ * or density changes.
+ * <p/>
+ * Only used from the main thread.
+ */
+final class DayNumberAtlas {
+    private static final int COLUMNS = 8;
+    private static final int ROWS = 4;
+    // Typefaces kept, a month uses a normal and a bold one
+    private static final int MAX_VARIANTS = 4;
+
+    private static DayNumberAtlas sAtlas;
+
+    private final float mTextSize;
+    private final float mFontScale;
+    private final int mDensityDpi;
+    private final boolean mAntiAlias;
+
+    private final Typeface[] mTypefaces = new Typeface[MAX_VARIANTS];
+    private final Bitmap[] mMasks = new Bitmap[MAX_VARIANTS];
+    // Size of a cell of each mask and the baseline of the numbers within it, measured in the
+    // typeface of the mask
+    private final int[] mCellWidths = new int[MAX_VARIANTS];
+    private final int[] mCellHeights = new int[MAX_VARIANTS];
+    private final int[] mBaselines = new int[MAX_VARIANTS];
+    private int mVariantCount;
+
+    private final Paint mRasterPaint = new Paint();
+    private final Rect mSrc = new Rect();
+    private final Rect mDst = new Rect();
+
+    private DayNumberAtlas(@NonNull Paint paint, float fontScale, int densityDpi) {
+        mTextSize = paint.getTextSize();
+        mFontScale = fontScale;
+        mDensityDpi = densityDpi;
+        mAntiAlias = paint.isAntiAlias();
+
+        mRasterPaint.setAntiAlias(mAntiAlias);
+        mRasterPaint.setTextSize(mTextSize);
+        mRasterPaint.setTextAlign(Paint.Align.CENTER);
+        mRasterPaint.setColor(0xFF000000);
+    }
+
+    /**
+     * @return the atlas for the text size and anti-aliasing of the paint at the current font
+     * scale and density, replacing the previous atlas if they changed
+     */
+    static DayNumberAtlas get(@NonNull Paint paint, @NonNull Resources res) {
+        final float fontScale = res.getConfiguration().fontScale;
+        final int densityDpi = res.getDisplayMetrics().densityDpi;
+        DayNumberAtlas atlas = sAtlas;
+        if (atlas == null || atlas.mTextSize != paint.getTextSize() || atlas.mFontScale != fontScale
+                || atlas.mDensityDpi != densityDpi || atlas.mAntiAlias != paint.isAntiAlias()) {
+            atlas = new DayNumberAtlas(paint, fontScale, densityDpi);
+            sAtlas = atlas;
+        }
+        return atlas;
+    }
+
+    /**
+     * Draws the day centered horizontally on x with its baseline on y, in the typeface and color
+     * of the paint
+     *
+     * @return false if the day was not drawn, because the atlas has no room for the typeface
+     */
+    boolean draw(@NonNull Canvas canvas, int day, int x, int y, @NonNull Paint paint) {
+        final int variant = getVariant(paint.getTypeface());
+        if (variant < 0) return false;
+
+        final int cellWidth = mCellWidths[variant];
+        final int cellHeight = mCellHeights[variant];
+        final int cell = day - 1;
+        final int left = (cell % COLUMNS) * cellWidth;
+        final int top = (cell / COLUMNS) * cellHeight;
+        mSrc.set(left, top, left + cellWidth, top + cellHeight);
+        final int dstLeft = x - cellWidth / 2;
+        final int dstTop = y - mBaselines[variant];
+        mDst.set(dstLeft, dstTop, dstLeft + cellWidth, dstTop + cellHeight);
+        canvas.drawBitmap(mMasks[variant], mSrc, mDst, paint);
+        return true;
+    }
+
+    /**
+     * @return the index of the mask of the typeface, rasterizing it if needed, or -1 if there is
+     * no room for another typeface
+     */
+    private int getVariant(Typeface typeface) {
+        for (int i = 0; i < mVariantCount; i++) {
+            if (mTypefaces[i] == typeface) return i;
+        }
+        if (mVariantCount == MAX_VARIANTS) return -1;
+
+        mRasterPaint.setTypeface(typeface);
+        // Leave room for the widest number and the full extent of this typeface, custom ones
+        // may be wider or taller than the default
+        float widest = 0;
+        for (int day = 1; day <= 31; day++) {
+            widest = Math.max(widest, mRasterPaint.measureText(MonthView.DAY_NUMBERS[day]));
+        }
+        final Paint.FontMetricsInt metrics = mRasterPaint.getFontMetricsInt();
+        final int padding = (int) Math.ceil(mTextSize / 8);
+        final int width = (int) Math.ceil(widest) + 2 * padding;
+        final int cellWidth = width + (width & 1);
+        final int baseline = padding - metrics.top;
+        final int cellHeight = baseline + metrics.bottom + padding;
+
+        final Bitmap mask = Bitmap.createBitmap(COLUMNS * cellWidth, ROWS * cellHeight,
+                Bitmap.Config.ALPHA_8);
+        final Canvas canvas = new Canvas(mask);
+        for (int day = 1; day <= 31; day++) {
+            final int cell = day - 1;
+            canvas.drawText(MonthView.DAY_NUMBERS[day],
+                    (cell % COLUMNS) * cellWidth + cellWidth / 2,
+                    (cell / COLUMNS) * cellHeight + baseline, mRasterPaint);
+        }
+        final int variant = mVariantCount++;
+        mTypefaces[variant] = typeface;
+        mMasks[variant] = mask;
+        mCellWidths[variant] = cellWidth;
+        mCellHeights[variant] = cellHeight;
+        mBaselines[variant] = baseline;
+        return variant;
+    }
+}
@@ -77,7 +77,10 @@ public abstract class DayPickerView extends RecyclerView implements DatePickerFr
     protected int mPreviousScrollState = RecyclerView.SCROLL_STATE_IDLE;
 
     private DatePickerController mController;
+    private int mMonthRenderCacheSize;
+    private boolean mUseDayNumberAtlas;
     private LinearLayoutManager linearLayoutManager;
+    private int mLastScrolledPosition = NO_POSITION;
 
     public DayPickerView(Context context, AttributeSet attrs) {
         super(context, attrs);
@@ -130,10 +133,36 @@ public abstract class DayPickerView extends RecyclerView implements DatePickerFr
         refreshAdapter();
     }
 
+    /**
+     * Redraws the months from the first to the last given epoch day, after their limits or
+     * highlights changed. Months before the new start date or after the new end date are added
+     * or removed without touching the others, so scroll position and recycled views survive.
+     */
+    void onDaysChanged(int firstDay, int lastDay) {
+        if (mAdapter == null) return;
+        mAdapter.updateMonthRange();
+        mAdapter.setSelectedDay(mSelectedDay);
+        mAdapter.notifyMonthsChanged(monthIndex(firstDay), monthIndex(lastDay));
+    }
+
+    private static int monthIndex(int epochDay) {
+        if (epochDay == Integer.MIN_VALUE || epochDay == Integer.MAX_VALUE) return epochDay;
+        return EpochDay.year(epochDay) * MonthAdapter.MONTHS_IN_YEAR + EpochDay.month(epochDay);
+    }
+
+    /**
+     * Redraws the given month only, for example when its availability has changed
+     */
+    public void notifyMonthChanged(int year, int month) {
+        if (mAdapter == null) return;
+        final int position = mAdapter.getPosition(year, month);
+        if (position >= 0 && position < mAdapter.getItemCount()) mAdapter.notifyItemChanged(position);
+    }
+
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
         super.onLayout(changed, l, t, r, b);
-        final MonthAdapter.CalendarDay focusedDay = findAccessibilityFocus();
+        final int focusedDay = findAccessibilityFocus();
         restoreAccessibilityFocus(focusedDay);
     }
 
@@ -144,15 +173,57 @@ public abstract class DayPickerView extends RecyclerView implements DatePickerFr
     protected void refreshAdapter() {
         if (mAdapter == null) {
             mAdapter = createMonthAdapter(mController);
+            if (mMonthRenderCacheSize > 0) mAdapter.setRenderCache(new MonthRenderCache(mMonthRenderCacheSize));
+            if (mUseDayNumberAtlas) mAdapter.setUseDayNumberAtlas(true);
+            setAdapter(mAdapter);
         } else {
-            mAdapter.setSelectedDay(mSelectedDay);
+            // The range, limits or first day of week changed, which can affect every month
+            onDaysChanged(Integer.MIN_VALUE, Integer.MAX_VALUE);
         }
-        // refresh the view with the new parameters
-        setAdapter(mAdapter);
     }
 
     public abstract MonthAdapter createMonthAdapter(DatePickerController controller);
 
+    /**
+     * Keeps up to the given number of bytes of rendered months as bitmaps, so months scrolled
+     * back to or flung past are not drawn again. 0 draws every month every frame, and so does a
+     * size too small for the bitmap of one month. A bitmap is never shared by two visible months,
+     * so months on screen beyond the bitmaps that fit are drawn directly.
+     */
+    public void setMonthRenderCacheSize(int maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("The cache size can not be negative");
+        }
+        if (maxBytes == mMonthRenderCacheSize) return;
+        mMonthRenderCacheSize = maxBytes;
+        if (mAdapter != null) mAdapter.setRenderCache(maxBytes > 0 ? new MonthRenderCache(maxBytes) : null);
+    }
+
+    /**
+     * Draws the day numbers of the months from glyphs rasterized once, instead of laying out
+     * their text every frame
+     */
+    public void setUseDayNumberAtlas(boolean useDayNumberAtlas) {
+        mUseDayNumberAtlas = useDayNumberAtlas;
+        if (mAdapter != null) mAdapter.setUseDayNumberAtlas(useDayNumberAtlas);
+    }
+
+    @Override
+    public void setRecycledViewPool(RecycledViewPool pool) {
+        super.setRecycledViewPool(pool);
+        // Hand the month views back to a shared pool when the picker goes away
+        linearLayoutManager.setRecycleChildrenOnDetach(pool != null);
+    }
+
+    @Override
+    public void onScrolled(int dx, int dy) {
+        super.onScrolled(dx, dy);
+        final int position = linearLayoutManager.findFirstVisibleItemPosition();
+        if (position == NO_POSITION || position == mLastScrolledPosition) return;
+        mLastScrolledPosition = position;
+        mController.onMonthScrolled(mAdapter.getYear(position), mAdapter.getMonth(position));
+    }
+
     /**
      * This moves to the specified time in the view. If the time is not already
      * in range it will move the list so that the first of the month containing
@@ -176,9 +247,7 @@ public abstract class DayPickerView extends RecyclerView implements DatePickerFr
         }
 
         mTempDay.set(day);
-        int minMonth = mController.getStartDate().get(Calendar.MONTH);
-        final int position = (day.year - mController.getMinYear())
-                * MonthAdapter.MONTHS_IN_YEAR + day.month - minMonth;
+        final int position = mAdapter.getPosition(day.year, day.month);
 
         View child;
         int i = 0;
@@ -223,9 +292,7 @@ public abstract class DayPickerView extends RecyclerView implements DatePickerFr
     }
 
     public void scrollToMonth(int month) {
-        int minMonth = mController.getStartDate().get(Calendar.MONTH);
-        final int position = (mSelectedDay.year - mController.getMinYear())
-                * MonthAdapter.MONTHS_IN_YEAR + month - minMonth;
+        final int position = mAdapter.getPosition(mSelectedDay.year, month);
 
         smoothScrollToPosition(position);
     }
@@ -296,22 +363,23 @@ public abstract class DayPickerView extends RecyclerView implements DatePickerFr
 
     @Override
     public void onDateChanged() {
-        goTo(mController.getSelectedDay(), false, true, true);
+        mTempDay.setEpochDay(mController.getSelectedEpochDay());
+        goTo(mTempDay, false, true, true);
     }
 
     /**
      * Attempts to return the date that has accessibility focus.
      *
-     * @return The date that has accessibility focus, or {@code null} if no date
-     * has focus.
+     * @return The epoch day that has accessibility focus, or {@link EpochDaySet#NONE} if no
+     * date has focus.
      */
-    private MonthAdapter.CalendarDay findAccessibilityFocus() {
+    private int findAccessibilityFocus() {
         final int childCount = getChildCount();
         for (int i = 0; i < childCount; i++) {
             final View child = getChildAt(i);
             if (child instanceof MonthView) {
-                final MonthAdapter.CalendarDay focus = ((MonthView) child).getAccessibilityFocus();
-                if (focus != null) {
+                final int focus = ((MonthView) child).getAccessibilityFocusedEpochDay();
+                if (focus != EpochDaySet.NONE) {
                     if (Build.VERSION.SDK_INT == Build.VERSION_CODES.JELLY_BEAN_MR1) {
                         // Clear focus to avoid ListView bug in Jelly Bean MR1.
                         ((MonthView) child).clearAccessibilityFocus();
@@ -321,18 +389,18 @@ public abstract class DayPickerView extends RecyclerView implements DatePickerFr
             }
         }
 
-        return null;
+        return EpochDaySet.NONE;
     }
 
     /**
      * Attempts to restore accessibility focus to a given date. No-op if
-     * {@code day} is {@code null}.
+     * {@code day} is {@link EpochDaySet#NONE}.
      *
      * @param day The date that should receive accessibility focus
      * @return {@code true} if focus was restored
      */
-    private boolean restoreAccessibilityFocus(MonthAdapter.CalendarDay day) {
-        if (day == null) {
+    private boolean restoreAccessibilityFocus(int day) {
+        if (day == EpochDaySet.NONE) {
             return false;
         }
 
@@ -395,10 +463,8 @@ public abstract class DayPickerView extends RecyclerView implements DatePickerFr
         }
         // Figure out what month is showing.
         int firstVisiblePosition = getFirstVisiblePosition();
-        int minMonth = mController.getStartDate().get(Calendar.MONTH);
-        int month = (firstVisiblePosition + minMonth) % MonthAdapter.MONTHS_IN_YEAR;
-        int year = (firstVisiblePosition + minMonth) / MonthAdapter.MONTHS_IN_YEAR + mController.getMinYear();
-        MonthAdapter.CalendarDay day = new MonthAdapter.CalendarDay(year, month, 1);
+        MonthAdapter.CalendarDay day = new MonthAdapter.CalendarDay(
+                mAdapter.getYear(firstVisiblePosition), mAdapter.getMonth(firstVisiblePosition), 1);
 
         // Scroll either forward or backward one month.
         if (action == AccessibilityNodeInfo.ACTION_SCROLL_FORWARD) {
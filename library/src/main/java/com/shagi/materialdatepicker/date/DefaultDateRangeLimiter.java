@@ -21,46 +21,53 @@ import android.os.Parcelable;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
-import com.shagi.materialdatepicker.Utils;
-
 import java.util.Arrays;
 import java.util.Calendar;
-import java.util.HashSet;
 import java.util.TimeZone;
-import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+/**
+ * The limiter behind the configuration methods of {@link DatePickerFragmentDialog}. Its
+ * configuration lives in an immutable {@link Snapshot} which every setter replaces with an
+ * updated copy, so queries from any thread always see one consistent configuration and never
+ * wait for a lock.
+ */
 class DefaultDateRangeLimiter implements DateRangeLimiter {
     private static final int DEFAULT_START_YEAR = 1900;
     private static final int DEFAULT_END_YEAR = 2100;
+    // Number of months kept in the enabled days cache, must be a power of two
+    private static final int MONTH_CACHE_SIZE = 64;
+    // Set on every filled cache slot, day masks only use the lower 31 bits
+    private static final long MONTH_CACHE_VALID = 1L << 31;
+    private static final DateRule[] NO_RULES = new DateRule[0];
+
+    private transient volatile DatePickerController mController;
+    // Replaced as a whole on every change, writers synchronize on the limiter
+    private volatile Snapshot mSnapshot;
+
+    DefaultDateRangeLimiter() {
+        mSnapshot = new Snapshot(DEFAULT_START_YEAR, DEFAULT_END_YEAR, EpochDaySet.NONE, EpochDaySet.NONE,
+                EpochDaySet.EMPTY, EpochDaySet.EMPTY, NO_RULES, NO_RULES);
+    }
 
-    private transient DatePickerController mController;
-    private int mMinYear = DEFAULT_START_YEAR;
-    private int mMaxYear = DEFAULT_END_YEAR;
-    private Calendar mMinDate;
-    private Calendar mMaxDate;
-    private TreeSet<Calendar> selectableDays = new TreeSet<>();
-    private HashSet<Calendar> disabledDays = new HashSet<>();
-
-    DefaultDateRangeLimiter() {}
-
-    @SuppressWarnings({"unchecked", "WeakerAccess"})
+    @SuppressWarnings("WeakerAccess")
     public DefaultDateRangeLimiter(Parcel in) {
-        mMinYear = in.readInt();
-        mMaxYear = in.readInt();
-        mMinDate = (Calendar) in.readSerializable();
-        mMaxDate = (Calendar) in.readSerializable();
-        selectableDays = (TreeSet<Calendar>) in.readSerializable();
-        disabledDays = (HashSet<Calendar>) in.readSerializable();
+        mSnapshot = new Snapshot(in.readInt(), in.readInt(), in.readInt(), in.readInt(),
+                EpochDaySet.createFromParcel(in), EpochDaySet.createFromParcel(in),
+                in.createTypedArray(DateRule.CREATOR), in.createTypedArray(DateRule.CREATOR));
     }
 
     @Override
     public void writeToParcel(Parcel out, int flags) {
-        out.writeInt(mMinYear);
-        out.writeInt(mMaxYear);
-        out.writeSerializable(mMinDate);
-        out.writeSerializable(mMaxDate);
-        out.writeSerializable(selectableDays);
-        out.writeSerializable(disabledDays);
+        final Snapshot snapshot = mSnapshot;
+        out.writeInt(snapshot.minYear);
+        out.writeInt(snapshot.maxYear);
+        out.writeInt(snapshot.minDate);
+        out.writeInt(snapshot.maxDate);
+        snapshot.selectableDays.writeToParcel(out);
+        snapshot.disabledDays.writeToParcel(out);
+        out.writeTypedArray(snapshot.selectableRules, flags);
+        out.writeTypedArray(snapshot.disabledRules, flags);
     }
 
     @Override
@@ -79,95 +86,193 @@ class DefaultDateRangeLimiter implements DateRangeLimiter {
         }
     };
 
-    void setSelectableDays(@NonNull Calendar[] days) {
-        for (Calendar selectableDay : days) Utils.trimToMidnight(selectableDay);
-        this.selectableDays.addAll(Arrays.asList(days));
+    synchronized void setSelectableDays(@NonNull Calendar[] days) {
+        final Snapshot s = mSnapshot;
+        mSnapshot = new Snapshot(s.minYear, s.maxYear, s.minDate, s.maxDate,
+                s.selectableDays.union(EpochDaySet.of(days)), s.disabledDays, s.selectableRules, s.disabledRules);
+    }
+
+    synchronized void setDisabledDays(@NonNull Calendar[] days) {
+        final Snapshot s = mSnapshot;
+        mSnapshot = new Snapshot(s.minYear, s.maxYear, s.minDate, s.maxDate,
+                s.selectableDays, s.disabledDays.union(EpochDaySet.of(days)), s.selectableRules, s.disabledRules);
+    }
+
+    synchronized void setSelectableRanges(@NonNull Calendar[] starts, @NonNull Calendar[] ends) {
+        final Snapshot s = mSnapshot;
+        mSnapshot = new Snapshot(s.minYear, s.maxYear, s.minDate, s.maxDate,
+                s.selectableDays.union(EpochDaySet.ofRanges(starts, ends)), s.disabledDays,
+                s.selectableRules, s.disabledRules);
     }
 
-    void setDisabledDays(@NonNull Calendar[] days) {
-        for (Calendar disabledDay : days) Utils.trimToMidnight(disabledDay);
-        this.disabledDays.addAll(Arrays.asList(days));
+    synchronized void setDisabledRanges(@NonNull Calendar[] starts, @NonNull Calendar[] ends) {
+        final Snapshot s = mSnapshot;
+        mSnapshot = new Snapshot(s.minYear, s.maxYear, s.minDate, s.maxDate,
+                s.selectableDays, s.disabledDays.union(EpochDaySet.ofRanges(starts, ends)),
+                s.selectableRules, s.disabledRules);
     }
 
-    void setMinDate(@NonNull Calendar calendar) {
-        mMinDate = Utils.trimToMidnight((Calendar) calendar.clone());
+    synchronized void setSelectableRules(@NonNull DateRule[] rules) {
+        final Snapshot s = mSnapshot;
+        mSnapshot = new Snapshot(s.minYear, s.maxYear, s.minDate, s.maxDate,
+                s.selectableDays, s.disabledDays, concat(s.selectableRules, rules), s.disabledRules);
     }
 
-    void setMaxDate(@NonNull Calendar calendar) {
-        mMaxDate = Utils.trimToMidnight((Calendar) calendar.clone());
+    synchronized void setDisabledRules(@NonNull DateRule[] rules) {
+        final Snapshot s = mSnapshot;
+        mSnapshot = new Snapshot(s.minYear, s.maxYear, s.minDate, s.maxDate,
+                s.selectableDays, s.disabledDays, s.selectableRules, concat(s.disabledRules, rules));
+    }
+
+    @NonNull
+    private static DateRule[] concat(@NonNull DateRule[] first, @NonNull DateRule[] second) {
+        DateRule[] output = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, output, first.length, second.length);
+        return output;
+    }
+
+    synchronized void setMinDate(@NonNull Calendar calendar) {
+        final Snapshot s = mSnapshot;
+        mSnapshot = new Snapshot(s.minYear, s.maxYear, EpochDay.of(calendar), s.maxDate,
+                s.selectableDays, s.disabledDays, s.selectableRules, s.disabledRules);
+    }
+
+    synchronized void setMaxDate(@NonNull Calendar calendar) {
+        final Snapshot s = mSnapshot;
+        mSnapshot = new Snapshot(s.minYear, s.maxYear, s.minDate, EpochDay.of(calendar),
+                s.selectableDays, s.disabledDays, s.selectableRules, s.disabledRules);
     }
 
     void setController(@NonNull DatePickerController controller) {
         mController = controller;
     }
 
-    void setYearRange(int startYear, int endYear) {
+    synchronized void setYearRange(int startYear, int endYear) {
         if (endYear < startYear) {
             throw new IllegalArgumentException("Year end must be larger than or equal to year start");
         }
 
-        mMinYear = startYear;
-        mMaxYear = endYear;
+        final Snapshot s = mSnapshot;
+        mSnapshot = new Snapshot(startYear, endYear, s.minDate, s.maxDate,
+                s.selectableDays, s.disabledDays, s.selectableRules, s.disabledRules);
     }
 
+    /**
+     * @return the min date as a new Calendar set to midnight in the picker's timezone, or null
+     */
     @Nullable
     Calendar getMinDate() {
-        return mMinDate;
+        final int minDate = mSnapshot.minDate;
+        return minDate == EpochDaySet.NONE ? null : EpochDay.toCalendar(minDate, getTimeZone());
     }
 
+    /**
+     * @return the max date as a new Calendar set to midnight in the picker's timezone, or null
+     */
     @Nullable
     Calendar getMaxDate() {
-        return mMaxDate;
+        final int maxDate = mSnapshot.maxDate;
+        return maxDate == EpochDaySet.NONE ? null : EpochDay.toCalendar(maxDate, getTimeZone());
     }
 
+    /**
+     * @return the first day allowed by the year range and min date
+     */
+    int getLowerBound() {
+        return mSnapshot.lowerBound;
+    }
+
+    /**
+     * @return the last day allowed by the year range and max date
+     */
+    int getUpperBound() {
+        return mSnapshot.upperBound;
+    }
+
+    /**
+     * @return true if selectable days, ranges or rules restrict the enabled days
+     */
+    boolean hasSelectableDays() {
+        final Snapshot s = mSnapshot;
+        return !s.selectableDays.isEmpty() || s.selectableRules.length > 0;
+    }
+
+    /**
+     * @return the selectable days in ascending order, as new Calendars set to midnight in the
+     * picker's timezone. null if no restriction is set. Ranges are expanded into one Calendar
+     * per day, see {@link #getSelectableRanges()}.
+     * @throws IllegalStateException if more than {@link EpochDaySet#MAX_EXPANDED_DAYS} days are selectable
+     */
     @Nullable
     Calendar[] getSelectableDays() {
-         return selectableDays.isEmpty() ? null : selectableDays.toArray(new Calendar[0]);
+        final EpochDaySet days = mSnapshot.selectableDays;
+        return days.isEmpty() ? null : days.toCalendars(getTimeZone());
     }
 
+    /**
+     * @return the first and last days of the selectable ranges, days set on their own being
+     * ranges of one day, as two arrays of new Calendars set to midnight in the picker's timezone.
+     * null if no restriction is set
+     */
+    @Nullable
+    Calendar[][] getSelectableRanges() {
+        final EpochDaySet days = mSnapshot.selectableDays;
+        return days.isEmpty() ? null : days.toCalendarRanges(getTimeZone());
+    }
+
+    /**
+     * @return the disabled days in ascending order, as new Calendars set to midnight in the
+     * picker's timezone. null if no restriction is set. Ranges are expanded into one Calendar
+     * per day, see {@link #getDisabledRanges()}.
+     * @throws IllegalStateException if more than {@link EpochDaySet#MAX_EXPANDED_DAYS} days are disabled
+     */
     @Nullable
     Calendar[] getDisabledDays() {
-        return disabledDays.isEmpty() ? null : disabledDays.toArray(new Calendar[0]);
+        final EpochDaySet days = mSnapshot.disabledDays;
+        return days.isEmpty() ? null : days.toCalendars(getTimeZone());
+    }
+
+    /**
+     * @return the first and last days of the disabled ranges, days set on their own being
+     * ranges of one day, as two arrays of new Calendars set to midnight in the picker's timezone.
+     * null if no restriction is set
+     */
+    @Nullable
+    Calendar[][] getDisabledRanges() {
+        final EpochDaySet days = mSnapshot.disabledDays;
+        return days.isEmpty() ? null : days.toCalendarRanges(getTimeZone());
     }
 
     @Override
     public int getMinYear() {
-        if (!selectableDays.isEmpty()) return selectableDays.first().get(Calendar.YEAR);
-        // Ensure no years can be selected outside of the given minimum date
-        return mMinDate != null && mMinDate.get(Calendar.YEAR) > mMinYear ? mMinDate.get(Calendar.YEAR) : mMinYear;
+        return EpochDay.year(mSnapshot.startDay);
     }
 
     @Override
     public int getMaxYear() {
-        if (!selectableDays.isEmpty()) return selectableDays.last().get(Calendar.YEAR);
-        // Ensure no years can be selected outside of the given maximum date
-        return mMaxDate != null && mMaxDate.get(Calendar.YEAR) < mMaxYear ? mMaxDate.get(Calendar.YEAR) : mMaxYear;
+        return EpochDay.year(mSnapshot.endDay);
     }
 
     @Override
     public @NonNull
     Calendar getStartDate() {
-        if (!selectableDays.isEmpty()) return (Calendar) selectableDays.first().clone();
-        if (mMinDate != null) return (Calendar) mMinDate.clone();
-        TimeZone timeZone = mController == null ? TimeZone.getDefault() : mController.getTimeZone();
-        Calendar output = Calendar.getInstance(timeZone);
-        output.set(Calendar.YEAR, mMinYear);
-        output.set(Calendar.DAY_OF_MONTH, 1);
-        output.set(Calendar.MONTH, Calendar.JANUARY);
-        return output;
+        return EpochDay.toCalendar(mSnapshot.startDay, getTimeZone());
     }
 
     @Override
     public @NonNull
     Calendar getEndDate() {
-        if (!selectableDays.isEmpty()) return (Calendar) selectableDays.last().clone();
-        if (mMaxDate != null) return (Calendar) mMaxDate.clone();
-        TimeZone timeZone = mController == null ? TimeZone.getDefault() : mController.getTimeZone();
-        Calendar output = Calendar.getInstance(timeZone);
-        output.set(Calendar.YEAR, mMaxYear);
-        output.set(Calendar.DAY_OF_MONTH, 31);
-        output.set(Calendar.MONTH, Calendar.DECEMBER);
-        return output;
+        return EpochDay.toCalendar(mSnapshot.endDay, getTimeZone());
+    }
+
+    @Override
+    public int getStartMonthIndex() {
+        return mSnapshot.startMonthIndex;
+    }
+
+    @Override
+    public int getEndMonthIndex() {
+        return mSnapshot.endMonthIndex;
     }
 
     /**
@@ -177,83 +282,269 @@ class DefaultDateRangeLimiter implements DateRangeLimiter {
      */
     @Override
     public boolean isOutOfRange(int year, int month, int day) {
-        Calendar date = Calendar.getInstance();
-        date.set(Calendar.YEAR, year);
-        date.set(Calendar.MONTH, month);
-        date.set(Calendar.DAY_OF_MONTH, day);
-        return isOutOfRange(date);
+        return isOutOfRange(EpochDay.of(year, month, day));
     }
 
-    private boolean isOutOfRange(@NonNull Calendar calendar) {
-        Utils.trimToMidnight(calendar);
-        return isDisabled(calendar) || !isSelectable(calendar);
+    @Override
+    public boolean isOutOfRange(int epochDay) {
+        return mSnapshot.isOutOfRange(epochDay);
     }
 
-    private boolean isDisabled(@NonNull Calendar c) {
-        return disabledDays.contains(Utils.trimToMidnight(c)) || isBeforeMin(c) || isAfterMax(c);
+    @Override
+    public int getOutOfRangeMask(int year, int month) {
+        final int allDays = (1 << EpochDay.daysInMonth(year, month)) - 1;
+        return ~mSnapshot.getEnabledDaysMask(year, month) & allDays;
     }
 
-    private boolean isSelectable(@NonNull Calendar c) {
-        return selectableDays.isEmpty() || selectableDays.contains(Utils.trimToMidnight(c));
+    @Override
+    public @NonNull
+    Calendar setToNearestDate(@NonNull Calendar calendar) {
+        final int day = EpochDay.of(calendar);
+        final int nearest = mSnapshot.nearestEnabledDay(day);
+        return nearest == EpochDaySet.NONE || nearest == day ? calendar : EpochDay.withEpochDay(calendar, nearest);
     }
 
-    private boolean isBeforeMin(@NonNull Calendar calendar) {
-        return mMinDate != null && calendar.before(mMinDate) || calendar.get(Calendar.YEAR) < mMinYear;
+    @NonNull
+    private TimeZone getTimeZone() {
+        final DatePickerController controller = mController;
+        return controller == null ? TimeZone.getDefault() : controller.getTimeZone();
     }
 
-    private boolean isAfterMax(@NonNull Calendar calendar) {
-        return mMaxDate != null && calendar.after(mMaxDate) || calendar.get(Calendar.YEAR) > mMaxYear;
-    }
+    /**
+     * An immutable configuration of the limiter together with its derived bounds. The month cache
+     * is only ever filled with results of this configuration, so sharing it between threads is
+     * safe.
+     */
+    private static final class Snapshot {
+        // Steps taken by nextEnabledDay and previousEnabledDay before giving up. Disabled days and
+        // days of week are jumped in one step, but every match of an nth day of week or every n
+        // days rule takes its own step, so this bounds the search when rules disable most days.
+        private static final int MAX_JUMPS = 1000;
+
+        final int minYear;
+        final int maxYear;
+        // Min and max dates as epoch days, EpochDaySet.NONE when not set
+        final int minDate;
+        final int maxDate;
+        final EpochDaySet selectableDays;
+        final EpochDaySet disabledDays;
+        final DateRule[] selectableRules;
+        final DateRule[] disabledRules;
+
+        // First and last day allowed by the year range and min/max dates
+        final int lowerBound;
+        final int upperBound;
+        // First and last day of the picker, as returned by getStartDate() and getEndDate()
+        final int startDay;
+        final int endDay;
+        // Months of the start and end day as year * 12 + month
+        final int startMonthIndex;
+        final int endMonthIndex;
+        // Direct mapped cache of enabled days per month: the month index in the upper 32 bits,
+        // MONTH_CACHE_VALID and a bit per enabled day in the lower 32 bits
+        private final AtomicLongArray monthCache = new AtomicLongArray(MONTH_CACHE_SIZE);
+
+        Snapshot(int minYear, int maxYear, int minDate, int maxDate,
+                 @NonNull EpochDaySet selectableDays, @NonNull EpochDaySet disabledDays,
+                 @NonNull DateRule[] selectableRules, @NonNull DateRule[] disabledRules) {
+            this.minYear = minYear;
+            this.maxYear = maxYear;
+            this.minDate = minDate;
+            this.maxDate = maxDate;
+            this.selectableDays = selectableDays;
+            this.disabledDays = disabledDays;
+            this.selectableRules = selectableRules;
+            this.disabledRules = disabledRules;
+
+            final int firstOfYear = EpochDay.of(minYear, Calendar.JANUARY, 1);
+            final int lastOfYear = EpochDay.of(maxYear, Calendar.DECEMBER, 31);
+            lowerBound = minDate != EpochDaySet.NONE ? Math.max(firstOfYear, minDate) : firstOfYear;
+            upperBound = maxDate != EpochDaySet.NONE ? Math.min(lastOfYear, maxDate) : lastOfYear;
+
+            // Ensure no days can be selected outside of the given minimum and maximum date
+            final int first = getFirstSelectableDay();
+            final int last = getLastSelectableDay();
+            startDay = first != EpochDaySet.NONE ? first : lowerBound;
+            endDay = last != EpochDaySet.NONE ? last : upperBound;
+            startMonthIndex = EpochDay.year(startDay) * 12 + EpochDay.month(startDay);
+            endMonthIndex = EpochDay.year(endDay) * 12 + EpochDay.month(endDay);
+        }
 
-    @Override
-    public @NonNull
-    Calendar setToNearestDate(@NonNull Calendar calendar) {
-        if (!selectableDays.isEmpty()) {
-            Calendar newCalendar = null;
-            Calendar higher = selectableDays.ceiling(calendar);
-            Calendar lower = selectableDays.lower(calendar);
-
-            if (higher == null && lower != null) newCalendar = lower;
-            else if (lower == null && higher != null) newCalendar = higher;
-
-            if (newCalendar != null || higher == null) {
-                newCalendar = newCalendar == null ? calendar : newCalendar;
-                TimeZone timeZone = mController == null ? TimeZone.getDefault() : mController.getTimeZone();
-                newCalendar.setTimeZone(timeZone);
-                return (Calendar) newCalendar.clone();
+        /**
+         * @return the first day allowed by the selectable days and rules, or
+         * {@link EpochDaySet#NONE} if there is no such day. Rules only count within the year
+         * range and min/max dates.
+         */
+        private int getFirstSelectableDay() {
+            int first = selectableDays.first();
+            for (DateRule rule : selectableRules) {
+                final int match = rule.nextMatch(lowerBound);
+                if (match != EpochDaySet.NONE && match <= upperBound
+                        && (first == EpochDaySet.NONE || match < first)) first = match;
             }
+            return first;
+        }
 
-            long highDistance = Math.abs(higher.getTimeInMillis() - calendar.getTimeInMillis());
-            long lowDistance = Math.abs(calendar.getTimeInMillis() - lower.getTimeInMillis());
+        /**
+         * @return the last day allowed by the selectable days and rules, or
+         * {@link EpochDaySet#NONE} if there is no such day. Rules only count within the year
+         * range and min/max dates.
+         */
+        private int getLastSelectableDay() {
+            int last = selectableDays.last();
+            for (DateRule rule : selectableRules) {
+                final int match = rule.previousMatch(upperBound);
+                if (match != EpochDaySet.NONE && match >= lowerBound && match > last) last = match;
+            }
+            return last;
+        }
 
-            if (lowDistance < highDistance) return (Calendar) lower.clone();
-            else return (Calendar) higher.clone();
+        boolean isOutOfRange(int epochDay) {
+            if (isBeforeMin(epochDay) || isAfterMax(epochDay)) return true;
+            final int mask = getEnabledDaysMask(EpochDay.year(epochDay), EpochDay.month(epochDay));
+            return (mask & (1 << (EpochDay.dayOfMonth(epochDay) - 1))) == 0;
         }
 
-        if (!disabledDays.isEmpty()) {
-            Calendar forwardDate = isBeforeMin(calendar) ? getStartDate() : (Calendar) calendar.clone();
-            Calendar backwardDate = isAfterMax(calendar) ? getEndDate() : (Calendar) calendar.clone();
-            while (isDisabled(forwardDate) && isDisabled(backwardDate)) {
-                forwardDate.add(Calendar.DAY_OF_MONTH, 1);
-                backwardDate.add(Calendar.DAY_OF_MONTH, -1);
+        /**
+         * @return a mask with bit (day - 1) set for every day of the month that can be selected
+         */
+        int getEnabledDaysMask(int year, int month) {
+            final int monthIndex = year * 12 + month;
+            final int slot = monthIndex & (MONTH_CACHE_SIZE - 1);
+            final long entry = monthCache.get(slot);
+            if ((entry & MONTH_CACHE_VALID) != 0 && (int) (entry >> 32) == monthIndex) {
+                return (int) (entry & ~MONTH_CACHE_VALID);
             }
-            if (!isDisabled(backwardDate)) {
-                return backwardDate;
+
+            final int firstDay = EpochDay.of(year, month, 1);
+            final int daysInMonth = EpochDay.daysInMonth(year, month);
+            int mask = 0;
+            for (int i = 0; i < daysInMonth; i++) {
+                if (!isDisabled(firstDay + i) && isSelectable(firstDay + i)) mask |= 1 << i;
             }
-            if (!isDisabled(forwardDate)) {
-                return forwardDate;
+            monthCache.set(slot, ((long) monthIndex << 32) | MONTH_CACHE_VALID | mask);
+            return mask;
+        }
+
+        private boolean isDisabled(int epochDay) {
+            return disabledDays.contains(epochDay) || matchesAny(disabledRules, epochDay)
+                    || isBeforeMin(epochDay) || isAfterMax(epochDay);
+        }
+
+        private boolean isSelectable(int epochDay) {
+            return !hasSelectableRestriction() || selectableDays.contains(epochDay)
+                    || matchesAny(selectableRules, epochDay);
+        }
+
+        private boolean hasSelectableRestriction() {
+            return !selectableDays.isEmpty() || selectableRules.length > 0;
+        }
+
+        private static boolean matchesAny(@NonNull DateRule[] rules, int epochDay) {
+            for (DateRule rule : rules) {
+                if (rule.matches(epochDay)) return true;
             }
+            return false;
+        }
+
+        private boolean isBeforeMin(int epochDay) {
+            return epochDay < lowerBound;
+        }
+
+        private boolean isAfterMax(int epochDay) {
+            return epochDay > upperBound;
         }
 
+        /**
+         * @return the given day if it is enabled, else the closest enabled day, or
+         * {@link EpochDaySet#NONE} if no day is enabled within {@link #MAX_JUMPS} in either
+         * direction. A tie goes to the later day when the selectable days are restricted, and to
+         * the earlier day otherwise.
+         */
+        int nearestEnabledDay(int epochDay) {
+            if (!isOutOfRange(epochDay)) return epochDay;
+
+            final int next = nextEnabledDay(epochDay);
+            final int previous = previousEnabledDay(epochDay);
+            if (next == EpochDaySet.NONE) return previous;
+            if (previous == EpochDaySet.NONE) return next;
+            final long nextDistance = (long) next - epochDay;
+            final long previousDistance = (long) epochDay - previous;
+            if (nextDistance == previousDistance) return hasSelectableRestriction() ? next : previous;
+            return nextDistance < previousDistance ? next : previous;
+        }
 
-        if (mMinDate != null && isBeforeMin(calendar)) {
-            return (Calendar) mMinDate.clone();
+        /**
+         * @return the first enabled day on or after the given day, or {@link EpochDaySet#NONE}.
+         * Each step jumps a whole run of disabled days or days not selectable, or the days a
+         * disabled rule matches.
+         */
+        private int nextEnabledDay(int epochDay) {
+            int day = Math.max(epochDay, lowerBound);
+            for (int jump = 0; jump < MAX_JUMPS && day <= upperBound; jump++) {
+                if (hasSelectableRestriction()) {
+                    day = nextSelectableDay(day);
+                    if (day == EpochDaySet.NONE || day > upperBound) break;
+                }
+                int next = disabledDays.nextAbsent(day);
+                for (int i = 0; i < disabledRules.length && next >= day; i++) {
+                    next = disabledRules[i].nextMismatch(next);
+                }
+                // Below the day when a rule matches every later day, or a run ends at the last day
+                if (next < day) break;
+                if (next == day) return day;
+                day = next;
+            }
+            return EpochDaySet.NONE;
         }
 
-        if (mMaxDate != null && isAfterMax(calendar)) {
-            return (Calendar) mMaxDate.clone();
+        /**
+         * @return the last enabled day on or before the given day, or {@link EpochDaySet#NONE}
+         */
+        private int previousEnabledDay(int epochDay) {
+            int day = Math.min(epochDay, upperBound);
+            for (int jump = 0; jump < MAX_JUMPS && day >= lowerBound; jump++) {
+                if (hasSelectableRestriction()) {
+                    day = previousSelectableDay(day);
+                    if (day == EpochDaySet.NONE || day < lowerBound) break;
+                }
+                int previous = disabledDays.previousAbsent(day);
+                for (int i = 0; i < disabledRules.length && previous <= day && previous != EpochDaySet.NONE; i++) {
+                    previous = disabledRules[i].previousMismatch(previous);
+                }
+                // NONE when a rule matches every earlier day, above the day if a run starts at the
+                // first day
+                if (previous > day || previous == EpochDaySet.NONE) break;
+                if (previous == day) return day;
+                day = previous;
+            }
+            return EpochDaySet.NONE;
         }
 
-        return calendar;
+        /**
+         * @return the first day on or after the given day allowed by the selectable days or
+         * rules, or {@link EpochDaySet#NONE}
+         */
+        private int nextSelectableDay(int epochDay) {
+            int next = selectableDays.ceiling(epochDay);
+            for (DateRule rule : selectableRules) {
+                final int match = rule.nextMatch(epochDay);
+                if (match != EpochDaySet.NONE && (next == EpochDaySet.NONE || match < next)) next = match;
+            }
+            return next;
+        }
+
+        /**
+         * @return the last day on or before the given day allowed by the selectable days or
+         * rules, or {@link EpochDaySet#NONE}
+         */
+        private int previousSelectableDay(int epochDay) {
+            int previous = selectableDays.floor(epochDay);
+            for (DateRule rule : selectableRules) {
+                final int match = rule.previousMatch(epochDay);
+                if (match > previous) previous = match;
+            }
+            return previous;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package com.shagi.materialdatepicker.date;
+
+import android.support.annotation.NonNull;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Calendar-free arithmetic on days counted from 1970-01-01 in the proleptic Gregorian calendar.
+ * Months are zero based, like {@link Calendar#MONTH}.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class EpochDay {
+    private static final int DAYS_PER_ERA = 146097;
+    private static final int DAYS_0000_TO_1970 = 719468;
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+    private EpochDay() {}
+
+    /**
+     * @return the epoch day of the given date. Months and days outside of their usual range roll
+     * over into the neighbouring months, just like a lenient Calendar would.
+     */
+    public static int of(int year, int month, int day) {
+        year += floorDiv(month, 12);
+        month = floorMod(month, 12) + 1;
+        if (month <= 2) year--;
+        final int era = floorDiv(year, 400);
+        final int yearOfEra = year - era * 400;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    public static int of(@NonNull Calendar calendar) {
+        return of(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH));
+    }
+
+    /**
+     * @return the epoch day of the given instant in the time zone, without creating a Calendar
+     */
+    public static int of(long timeInMillis, @NonNull TimeZone timeZone) {
+        final long localMillis = timeInMillis + timeZone.getOffset(timeInMillis);
+        long day = localMillis / MILLIS_PER_DAY;
+        if (localMillis % MILLIS_PER_DAY < 0) day--;
+        return (int) day;
+    }
+
+    public static int year(int epochDay) {
+        final int dayOfEra = dayOfEra(epochDay);
+        final int yearOfEra = yearOfEra(dayOfEra);
+        final int year = yearOfEra + era(epochDay) * 400;
+        return monthOfYear(dayOfEra, yearOfEra) < 2 ? year + 1 : year;
+    }
+
+    public static int month(int epochDay) {
+        final int dayOfEra = dayOfEra(epochDay);
+        return monthOfYear(dayOfEra, yearOfEra(dayOfEra));
+    }
+
+    public static int dayOfMonth(int epochDay) {
+        final int dayOfEra = dayOfEra(epochDay);
+        final int dayOfYear = dayOfYear(dayOfEra, yearOfEra(dayOfEra));
+        return dayOfYear - (153 * ((5 * dayOfYear + 2) / 153) + 2) / 5 + 1;
+    }
+
+    /**
+     * @return the day of the week, numbered like {@link Calendar#SUNDAY} to {@link Calendar#SATURDAY}
+     */
+    public static int dayOfWeek(int epochDay) {
+        // 1970-01-01 was a Thursday
+        return floorMod(epochDay + 4, 7) + 1;
+    }
+
+    public static int daysInMonth(int year, int month) {
+        return of(year, month + 1, 1) - of(year, month, 1);
+    }
+
+    /**
+     * @return a new Calendar in the given timezone, set to midnight of the epoch day
+     */
+    @NonNull
+    public static Calendar toCalendar(int epochDay, @NonNull TimeZone timeZone) {
+        Calendar calendar = Calendar.getInstance(timeZone);
+        calendar.clear();
+        calendar.set(year(epochDay), month(epochDay), dayOfMonth(epochDay));
+        return calendar;
+    }
+
+    /**
+     * @return a copy of the calendar, keeping its timezone and time of day, moved to the epoch day
+     */
+    @NonNull
+    static Calendar withEpochDay(@NonNull Calendar calendar, int epochDay) {
+        Calendar output = (Calendar) calendar.clone();
+        output.add(Calendar.DAY_OF_MONTH, epochDay - of(calendar));
+        return output;
+    }
+
+    private static int era(int epochDay) {
+        return floorDiv(epochDay + DAYS_0000_TO_1970, DAYS_PER_ERA);
+    }
+
+    private static int dayOfEra(int epochDay) {
+        return epochDay + DAYS_0000_TO_1970 - era(epochDay) * DAYS_PER_ERA;
+    }
+
+    private static int yearOfEra(int dayOfEra) {
+        return (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    }
+
+    private static int dayOfYear(int dayOfEra, int yearOfEra) {
+        return dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    }
+
+    private static int monthOfYear(int dayOfEra, int yearOfEra) {
+        // The era arithmetic counts years from March, shift back to January based months
+        final int marchMonth = (5 * dayOfYear(dayOfEra, yearOfEra) + 2) / 153;
+        return marchMonth < 10 ? marchMonth + 2 : marchMonth - 10;
+    }
+
+    // Math.floorDiv and Math.floorMod are only available from API 24
+    static int floorDiv(int x, int y) {
+        final int q = x / y;
+        return (x % y != 0 && (x ^ y) < 0) ? q - 1 : q;
+    }
+
+    static int floorMod(int x, int y) {
+        return x - floorDiv(x, y) * y;
+    }
+}
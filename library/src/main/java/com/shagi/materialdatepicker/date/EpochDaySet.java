@@ -0,0 +1,324 @@
+package com.shagi.materialdatepicker.date;
+
+import android.os.Parcel;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * An immutable set of epoch days, stored as sorted, non-overlapping runs of consecutive days.
+ * Memory grows with the number of runs rather than the number of days. Lookups are binary
+ * searches over the runs and never allocate.
+ */
+final class EpochDaySet {
+    /**
+     * Returned by the navigation methods when no matching day exists
+     */
+    static final int NONE = Integer.MIN_VALUE;
+
+    static final EpochDaySet EMPTY = new EpochDaySet(new int[0], new int[0]);
+
+    /**
+     * Most days {@link #toArray()} expands the set into, a little over 270 years
+     */
+    static final int MAX_EXPANDED_DAYS = 100000;
+
+    // First and last day of every run, in ascending order. Runs never touch or overlap.
+    private final int[] mRunStarts;
+    private final int[] mRunEnds;
+
+    private EpochDaySet(int[] runStarts, int[] runEnds) {
+        mRunStarts = runStarts;
+        mRunEnds = runEnds;
+    }
+
+    @NonNull
+    static EpochDaySet of(@NonNull int[] days) {
+        return ofRanges(days, days);
+    }
+
+    @NonNull
+    static EpochDaySet of(@NonNull Calendar[] days) {
+        int[] epochDays = new int[days.length];
+        for (int i = 0; i < days.length; i++) epochDays[i] = EpochDay.of(days[i]);
+        return of(epochDays);
+    }
+
+    /**
+     * @param starts the first day of each range
+     * @param ends   the last day of each range, inclusive
+     * @return a set holding every day covered by any of the ranges
+     */
+    @NonNull
+    static EpochDaySet ofRanges(@NonNull int[] starts, @NonNull int[] ends) {
+        if (starts.length != ends.length) {
+            throw new IllegalArgumentException("Every range needs both a start and an end");
+        }
+        if (starts.length == 0) return EMPTY;
+
+        // Sort the ranges on their start, packing start and end into one long keeps this primitive
+        long[] ranges = new long[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            if (ends[i] < starts[i]) {
+                throw new IllegalArgumentException("Range end must be later than or equal to range start");
+            }
+            ranges[i] = ((long) starts[i] << 32) | (ends[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(ranges);
+
+        int[] runStarts = new int[ranges.length];
+        int[] runEnds = new int[ranges.length];
+        int runs = 0;
+        for (long range : ranges) {
+            final int start = (int) (range >> 32);
+            final int end = (int) range;
+            if (runs > 0 && (long) start <= (long) runEnds[runs - 1] + 1) {
+                runEnds[runs - 1] = Math.max(runEnds[runs - 1], end);
+            } else {
+                runStarts[runs] = start;
+                runEnds[runs] = end;
+                runs++;
+            }
+        }
+        return new EpochDaySet(Arrays.copyOf(runStarts, runs), Arrays.copyOf(runEnds, runs));
+    }
+
+    @NonNull
+    static EpochDaySet ofRanges(@NonNull Calendar[] starts, @NonNull Calendar[] ends) {
+        if (starts.length != ends.length) {
+            throw new IllegalArgumentException("Every range needs both a start and an end");
+        }
+        int[] startDays = new int[starts.length];
+        int[] endDays = new int[ends.length];
+        for (int i = 0; i < starts.length; i++) {
+            startDays[i] = EpochDay.of(starts[i]);
+            endDays[i] = EpochDay.of(ends[i]);
+        }
+        return ofRanges(startDays, endDays);
+    }
+
+    /**
+     * @return a set holding the days of both this set and the other one
+     */
+    @NonNull
+    EpochDaySet union(@NonNull EpochDaySet other) {
+        if (other.isEmpty()) return this;
+        if (isEmpty()) return other;
+        int[] starts = Arrays.copyOf(mRunStarts, mRunStarts.length + other.mRunStarts.length);
+        int[] ends = Arrays.copyOf(mRunEnds, mRunEnds.length + other.mRunEnds.length);
+        System.arraycopy(other.mRunStarts, 0, starts, mRunStarts.length, other.mRunStarts.length);
+        System.arraycopy(other.mRunEnds, 0, ends, mRunEnds.length, other.mRunEnds.length);
+        return ofRanges(starts, ends);
+    }
+
+    void writeToParcel(@NonNull Parcel out) {
+        out.writeByteArray(toByteArray());
+    }
+
+    @NonNull
+    static EpochDaySet createFromParcel(@NonNull Parcel in) {
+        return fromByteArray(in.createByteArray());
+    }
+
+    /**
+     * @return the runs in a compact form: the run count, the zigzag encoded first day, then the
+     * length of every run and the gap to the next one, all as varints. Availability tends to
+     * cluster, so most values fit in a single byte.
+     */
+    @NonNull
+    byte[] toByteArray() {
+        // A varint never takes more than 5 bytes
+        byte[] output = new byte[5 * (2 + 2 * mRunStarts.length)];
+        int position = writeVarint(output, 0, mRunStarts.length);
+        if (mRunStarts.length > 0) {
+            position = writeVarint(output, position, (mRunStarts[0] << 1) ^ (mRunStarts[0] >> 31));
+        }
+        for (int i = 0; i < mRunStarts.length; i++) {
+            position = writeVarint(output, position, mRunEnds[i] - mRunStarts[i]);
+            if (i + 1 < mRunStarts.length) {
+                position = writeVarint(output, position, mRunStarts[i + 1] - mRunEnds[i]);
+            }
+        }
+        return Arrays.copyOf(output, position);
+    }
+
+    /**
+     * @param bytes the output of {@link #toByteArray()}
+     */
+    @NonNull
+    static EpochDaySet fromByteArray(@NonNull byte[] bytes) {
+        final int[] position = new int[1];
+        final int runs = readVarint(bytes, position);
+        if (runs == 0) return EMPTY;
+
+        int[] starts = new int[runs];
+        int[] ends = new int[runs];
+        final int first = readVarint(bytes, position);
+        starts[0] = (first >>> 1) ^ -(first & 1);
+        for (int i = 0; i < runs; i++) {
+            if (i > 0) starts[i] = ends[i - 1] + readVarint(bytes, position);
+            ends[i] = starts[i] + readVarint(bytes, position);
+        }
+        return new EpochDaySet(starts, ends);
+    }
+
+    private static int writeVarint(byte[] output, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            output[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output[position++] = (byte) value;
+        return position;
+    }
+
+    private static int readVarint(byte[] input, int[] position) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            final byte b = input[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    boolean isEmpty() {
+        return mRunStarts.length == 0;
+    }
+
+    boolean contains(int epochDay) {
+        final int run = findRun(epochDay);
+        return run >= 0 && epochDay <= mRunEnds[run];
+    }
+
+    /**
+     * @return a mask with bit i set if firstDay + i is in the set, for i below length (at most 32)
+     */
+    int mask(int firstDay, int length) {
+        final int lastDay = firstDay + length - 1;
+        int mask = 0;
+        for (int run = Math.max(findRun(firstDay), 0); run < mRunStarts.length; run++) {
+            if (mRunStarts[run] > lastDay) break;
+            final int start = Math.max(mRunStarts[run], firstDay);
+            final int end = Math.min(mRunEnds[run], lastDay);
+            for (int day = start; day <= end; day++) mask |= 1 << (day - firstDay);
+        }
+        return mask;
+    }
+
+    /**
+     * @return the lowest day in the set, or {@link #NONE} if the set is empty
+     */
+    int first() {
+        return isEmpty() ? NONE : mRunStarts[0];
+    }
+
+    /**
+     * @return the highest day in the set, or {@link #NONE} if the set is empty
+     */
+    int last() {
+        return isEmpty() ? NONE : mRunEnds[mRunEnds.length - 1];
+    }
+
+    /**
+     * @return the lowest day in the set greater than or equal to the given day, or {@link #NONE}
+     */
+    int ceiling(int epochDay) {
+        final int run = findRun(epochDay);
+        if (run >= 0 && epochDay <= mRunEnds[run]) return epochDay;
+        return run + 1 < mRunStarts.length ? mRunStarts[run + 1] : NONE;
+    }
+
+    /**
+     * @return the highest day in the set strictly less than the given day, or {@link #NONE}
+     */
+    int lower(int epochDay) {
+        return epochDay == Integer.MIN_VALUE ? NONE : floor(epochDay - 1);
+    }
+
+    /**
+     * @return the highest day in the set less than or equal to the given day, or {@link #NONE}
+     */
+    int floor(int epochDay) {
+        final int run = findRun(epochDay);
+        return run >= 0 ? Math.min(epochDay, mRunEnds[run]) : NONE;
+    }
+
+    /**
+     * @return the lowest day greater than or equal to the given day which is not in the set
+     */
+    int nextAbsent(int epochDay) {
+        final int run = findRun(epochDay);
+        return run >= 0 && epochDay <= mRunEnds[run] ? mRunEnds[run] + 1 : epochDay;
+    }
+
+    /**
+     * @return the highest day less than or equal to the given day which is not in the set
+     */
+    int previousAbsent(int epochDay) {
+        final int run = findRun(epochDay);
+        return run >= 0 && epochDay <= mRunEnds[run] ? mRunStarts[run] - 1 : epochDay;
+    }
+
+    /**
+     * @return the index of the last run starting on or before the given day, or -1
+     */
+    private int findRun(int epochDay) {
+        int index = Arrays.binarySearch(mRunStarts, epochDay);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * @return the number of days in the set
+     */
+    long size() {
+        long size = 0;
+        for (int i = 0; i < mRunStarts.length; i++) size += (long) mRunEnds[i] - mRunStarts[i] + 1;
+        return size;
+    }
+
+    /**
+     * @return every day of the set in ascending order. This expands the runs, so only use it
+     * where a per-day representation is really needed.
+     * @throws IllegalStateException if the set holds more than {@link #MAX_EXPANDED_DAYS} days
+     */
+    @NonNull
+    int[] toArray() {
+        final long size = size();
+        if (size > MAX_EXPANDED_DAYS) {
+            throw new IllegalStateException("Too many days to expand: " + size + ", read the ranges instead");
+        }
+        int[] output = new int[(int) size];
+        int index = 0;
+        for (int i = 0; i < mRunStarts.length; i++) {
+            for (int day = mRunStarts[i]; day <= mRunEnds[i]; day++) output[index++] = day;
+        }
+        return output;
+    }
+
+    /**
+     * @throws IllegalStateException if the set holds more than {@link #MAX_EXPANDED_DAYS} days
+     */
+    @NonNull
+    Calendar[] toCalendars(@NonNull TimeZone timeZone) {
+        int[] days = toArray();
+        Calendar[] output = new Calendar[days.length];
+        for (int i = 0; i < days.length; i++) output[i] = EpochDay.toCalendar(days[i], timeZone);
+        return output;
+    }
+
+    /**
+     * @return the first days of the runs and their last days, as two arrays of new Calendars
+     * set to midnight in the given timezone. Never expands the runs.
+     */
+    @NonNull
+    Calendar[][] toCalendarRanges(@NonNull TimeZone timeZone) {
+        Calendar[] starts = new Calendar[mRunStarts.length];
+        Calendar[] ends = new Calendar[mRunEnds.length];
+        for (int i = 0; i < mRunStarts.length; i++) {
+            starts[i] = EpochDay.toCalendar(mRunStarts[i], timeZone);
+            ends[i] = EpochDay.toCalendar(mRunEnds[i], timeZone);
+        }
+        return new Calendar[][]{starts, ends};
+    }
+}
@@ -22,6 +22,7 @@ import android.view.ViewGroup;
 import android.widget.AbsListView.LayoutParams;
 
 import java.util.Calendar;
+import java.util.List;
 import java.util.TimeZone;
 
 /**
@@ -33,32 +34,58 @@ public abstract class MonthAdapter extends RecyclerView.Adapter<MonthAdapter.Mon
     protected final DatePickerController mController;
 
     private CalendarDay mSelectedDay;
+    private MonthRenderCache mRenderCache;
+    private boolean mUseDayNumberAtlas;
+    private final MonthRange mMonths = new MonthRange();
+    // Passes the changes reported by mMonths on to the views of the adapter
+    private final RecyclerView.AdapterDataObserver mNotifier = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            notifyDataSetChanged();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            notifyItemRangeChanged(positionStart, itemCount, payload);
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            notifyItemRangeInserted(positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            notifyItemRangeRemoved(positionStart, itemCount);
+        }
+    };
 
     protected static int WEEK_7_OVERHANG_HEIGHT = 7;
     protected static final int MONTHS_IN_YEAR = 12;
+    // Passed to notifyItemChanged when only the selected day of a month changed
+    protected static final Object SELECTION_PAYLOAD = new Object();
 
     /**
-     * A convenience class to represent a specific date.
+     * A convenience class to represent a specific date. Equal days are equal and hash alike, but
+     * a CalendarDay is mutable: never change one while it is a key of a HashMap or an element
+     * of a HashSet. Use {@link #toEpochDay()} as the key instead, which also suits primitive
+     * collections.
      */
     public static class CalendarDay {
-        private Calendar calendar;
         int year;
         int month;
         int day;
-        TimeZone mTimeZone;
 
         public CalendarDay(TimeZone timeZone) {
-            mTimeZone = timeZone;
-            setTime(System.currentTimeMillis());
+            setTime(System.currentTimeMillis(), timeZone);
         }
 
         public CalendarDay(long timeInMillis, TimeZone timeZone) {
-            mTimeZone = timeZone;
-            setTime(timeInMillis);
+            setTime(timeInMillis, timeZone);
         }
 
+        @SuppressWarnings("unused")
         public CalendarDay(Calendar calendar, TimeZone timeZone) {
-            mTimeZone = timeZone;
             year = calendar.get(Calendar.YEAR);
             month = calendar.get(Calendar.MONTH);
             day = calendar.get(Calendar.DAY_OF_MONTH);
@@ -80,16 +107,50 @@ public abstract class MonthAdapter extends RecyclerView.Adapter<MonthAdapter.Mon
             this.day = day;
         }
 
-        private void setTime(long timeInMillis) {
-            if (calendar == null) {
-                calendar = Calendar.getInstance(mTimeZone);
-            }
+        /**
+         * @param epochDay the number of days since 1970-01-01
+         */
+        public void setEpochDay(int epochDay) {
+            year = EpochDay.year(epochDay);
+            month = EpochDay.month(epochDay);
+            day = EpochDay.dayOfMonth(epochDay);
+        }
+
+        /**
+         * @return the number of days since 1970-01-01
+         */
+        public int toEpochDay() {
+            return EpochDay.of(year, month, day);
+        }
+
+        public static CalendarDay ofEpochDay(int epochDay) {
+            final CalendarDay calendarDay = new CalendarDay(0, 0, 0);
+            calendarDay.setEpochDay(epochDay);
+            return calendarDay;
+        }
+
+        private void setTime(long timeInMillis, TimeZone timeZone) {
+            final Calendar calendar = Calendar.getInstance(timeZone);
             calendar.setTimeInMillis(timeInMillis);
             month = calendar.get(Calendar.MONTH);
             year = calendar.get(Calendar.YEAR);
             day = calendar.get(Calendar.DAY_OF_MONTH);
         }
 
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CalendarDay)) return false;
+            final CalendarDay other = (CalendarDay) o;
+            return year == other.year && month == other.month && day == other.day;
+        }
+
+        @Override
+        public int hashCode() {
+            // Day and month fit in 9 bits
+            return (year << 9) | (month << 5) | day;
+        }
+
         public int getYear() {
             return year;
         }
@@ -105,8 +166,9 @@ public abstract class MonthAdapter extends RecyclerView.Adapter<MonthAdapter.Mon
 
     public MonthAdapter(DatePickerController controller) {
         mController = controller;
+        updateMonthRange();
         init();
-        setSelectedDay(mController.getSelectedDay());
+        mSelectedDay.setEpochDay(mController.getSelectedEpochDay());
         setHasStableIds(true);
     }
 
@@ -116,13 +178,83 @@ public abstract class MonthAdapter extends RecyclerView.Adapter<MonthAdapter.Mon
      * @param day The day to highlight
      */
     public void setSelectedDay(CalendarDay day) {
-        mSelectedDay = day;
-        notifyDataSetChanged();
+        setSelectedDay(day.year, day.month, day.day);
+    }
+
+    private void setSelectedDay(int year, int month, int day) {
+        final int oldYear = mSelectedDay.year;
+        final int oldMonth = mSelectedDay.month;
+        if (oldYear == year && oldMonth == month && mSelectedDay.day == day) return;
+        // Keep a copy, callers keep changing the day they pass in
+        mSelectedDay.setDay(year, month, day);
+        // Only the months losing and gaining the selection have to redraw
+        final int oldMonthIndex = oldYear * MONTHS_IN_YEAR + oldMonth;
+        mMonths.notifyChanged(oldMonthIndex, oldMonthIndex, SELECTION_PAYLOAD, mNotifier);
+        if (oldYear != year || oldMonth != month) {
+            final int monthIndex = year * MONTHS_IN_YEAR + month;
+            mMonths.notifyChanged(monthIndex, monthIndex, SELECTION_PAYLOAD, mNotifier);
+        }
     }
 
+    /**
+     * @return a copy of the selected day, changing it does not change the selection
+     */
     @SuppressWarnings("unused")
     public CalendarDay getSelectedDay() {
-        return mSelectedDay;
+        return new CalendarDay(mSelectedDay.year, mSelectedDay.month, mSelectedDay.day);
+    }
+
+    /**
+     * Sets the cache month views draw through, or null to draw them every frame
+     */
+    void setRenderCache(MonthRenderCache renderCache) {
+        mRenderCache = renderCache;
+        notifyItemRangeChanged(0, mMonths.getCount());
+    }
+
+    /**
+     * Draws day numbers from pre-rasterized glyphs instead of laying out their text
+     */
+    void setUseDayNumberAtlas(boolean useDayNumberAtlas) {
+        mUseDayNumberAtlas = useDayNumberAtlas;
+        notifyItemRangeChanged(0, mMonths.getCount());
+    }
+
+    /**
+     * Reads the first and last month from the controller. Call this when the date range changed,
+     * before notifying the adapter.
+     */
+    public void updateMonthRange() {
+        mMonths.update(mController.getStartMonthIndex(), mController.getEndMonthIndex(), mNotifier);
+    }
+
+    /**
+     * Rebinds the months in the given range, as year * 12 + month, which are part of the adapter
+     */
+    public void notifyMonthsChanged(int firstMonthIndex, int lastMonthIndex) {
+        mMonths.notifyChanged(firstMonthIndex, lastMonthIndex, null, mNotifier);
+    }
+
+    /**
+     * @return the year of the month at the given position
+     */
+    public int getYear(int position) {
+        return mMonths.getYear(position);
+    }
+
+    /**
+     * @return the month, 0-11, at the given position
+     */
+    public int getMonth(int position) {
+        return mMonths.getMonth(position);
+    }
+
+    /**
+     * @return the position of the given month, which is outside of [0, getItemCount()) if the
+     * month is out of range
+     */
+    public int getPosition(int year, int month) {
+        return mMonths.getPosition(year, month);
     }
 
     /**
@@ -134,32 +266,57 @@ public abstract class MonthAdapter extends RecyclerView.Adapter<MonthAdapter.Mon
 
     @Override public MonthViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
 
-        MonthView v = createMonthView(parent.getContext());
-        // Set up the new view
+        return newViewHolder(createMonthView(parent.getContext()));
+    }
+
+    /**
+     * Sets up a new month view. The controller and click listener are set on every bind and
+     * dropped when the view is recycled, as holders may go to a pool shared with other pickers.
+     */
+    static MonthViewHolder newViewHolder(MonthView v) {
         LayoutParams params = new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT);
         v.setLayoutParams(params);
         v.setClickable(true);
-        v.setOnDayClickListener(this);
-
         return new MonthViewHolder(v);
     }
 
     @Override public void onBindViewHolder(MonthViewHolder holder, int position) {
-        holder.bind(position, mController, mSelectedDay);
+        final MonthView monthView = (MonthView) holder.itemView;
+        monthView.setDatePickerController(mController);
+        monthView.setOnDayClickListener(this);
+        monthView.setRenderCache(mRenderCache);
+        monthView.setUseDayNumberAtlas(mUseDayNumberAtlas);
+        holder.bind(getYear(position), getMonth(position), mController, mSelectedDay);
+    }
+
+    @Override
+    public void onBindViewHolder(MonthViewHolder holder, int position, List<Object> payloads) {
+        for (Object payload : payloads) {
+            if (payload != SELECTION_PAYLOAD) {
+                onBindViewHolder(holder, position);
+                return;
+            }
+        }
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+        } else {
+            holder.updateSelection(getYear(position), getMonth(position), mSelectedDay);
+        }
+    }
+
+    @Override
+    public void onViewRecycled(MonthViewHolder holder) {
+        super.onViewRecycled(holder);
+        ((MonthView) holder.itemView).releasePicker();
     }
 
     @Override
     public long getItemId(int position) {
-        return position;
+        return mMonths.getStartMonthIndex() + position;
     }
 
     @Override public int getItemCount() {
-        Calendar endDate = mController.getEndDate();
-        Calendar startDate = mController.getStartDate();
-        int endMonth = endDate.get(Calendar.YEAR) * MONTHS_IN_YEAR + endDate.get(Calendar.MONTH);
-        int startMonth = startDate.get(Calendar.YEAR) * MONTHS_IN_YEAR + startDate.get(Calendar.MONTH);
-        return endMonth - startMonth + 1;
-        //return ((mController.getMaxYear() - mController.getMinYear()) + 1) * MONTHS_IN_YEAR;
+        return mMonths.getCount();
     }
 
     public abstract MonthView createMonthView(Context context);
@@ -167,18 +324,38 @@ public abstract class MonthAdapter extends RecyclerView.Adapter<MonthAdapter.Mon
     @Override
     public void onDayClick(MonthView view, CalendarDay day) {
         if (day != null) {
-            onDayTapped(day);
+            onDayTapped(day.year, day.month, day.day);
         }
     }
 
+    @Override
+    public void onDayClick(MonthView view, int year, int month, int day) {
+        onDayTapped(year, month, day);
+    }
+
     /**
      * Maintains the same hour/min/sec but moves the day to the tapped day.
      *
      * @param day The day that was tapped
+     * @deprecated month views report taps through {@link #onDayTapped(int, int, int)} without
+     * allocating a CalendarDay, override that one instead
      */
+    @Deprecated
     protected void onDayTapped(CalendarDay day) {
-        mController.onDayOfMonthSelected(day.year, day.month, day.day);
-        setSelectedDay(day);
+        onDayTapped(day.year, day.month, day.day);
+    }
+
+    /**
+     * Maintains the same hour/min/sec but moves the day to the tapped day. Every tap goes
+     * through here.
+     *
+     * @param year  The year of the tapped day
+     * @param month The month of the tapped day, 0-11
+     * @param day   The tapped day of the month
+     */
+    protected void onDayTapped(int year, int month, int day) {
+        mController.onDayOfMonthSelected(year, month, day);
+        setSelectedDay(year, month, day);
     }
 
     static class MonthViewHolder extends RecyclerView.ViewHolder {
@@ -188,17 +365,19 @@ public abstract class MonthAdapter extends RecyclerView.Adapter<MonthAdapter.Mon
 
         }
 
-        void bind(int position, DatePickerController mController, CalendarDay selectedCalendarDay) {
-            final int month = (position + mController.getStartDate().get(Calendar.MONTH)) % MONTHS_IN_YEAR;
-            final int year = (position + mController.getStartDate().get(Calendar.MONTH)) / MONTHS_IN_YEAR + mController.getMinYear();
-
+        void bind(int year, int month, DatePickerController mController, CalendarDay selectedCalendarDay) {
             int selectedDay = -1;
             if (isSelectedDayInMonth(selectedCalendarDay, year, month)) {
                 selectedDay = selectedCalendarDay.day;
             }
 
+            // Does nothing if the view already shows this state, else redraws what changed
             ((MonthView) itemView).setMonthParams(selectedDay, year, month, mController.getFirstDayOfWeek());
-            this.itemView.invalidate();
+        }
+
+        void updateSelection(int year, int month, CalendarDay selectedCalendarDay) {
+            ((MonthView) itemView).setSelectedDay(isSelectedDayInMonth(selectedCalendarDay, year, month)
+                    ? selectedCalendarDay.day : -1);
         }
 
         private boolean isSelectedDayInMonth(CalendarDay selectedDay, int year, int month) {
@@ -0,0 +1,140 @@
+package com.shagi.materialdatepicker.date;
+
+import android.graphics.Rect;
+
+/**
+ * Cell positions of the days of a month, shared by drawing, hit testing and accessibility
+ * bounds so they always agree. Months laid out alike share an instance: the layout only depends
+ * on the column of the first day, the number of days and the size of the view.
+ * <p/>
+ * Instances are immutable. Only used from the main thread.
+ */
+final class MonthGeometry {
+    private static final int DAYS_IN_WEEK = 7;
+    private static final int CACHE_SIZE = 16;
+
+    private static final MonthGeometry[] sCache = new MonthGeometry[CACHE_SIZE];
+    private static final long[] sCacheLastUse = new long[CACHE_SIZE];
+    private static long sClock;
+
+    // Column of the first day of the month, 0-6
+    final int dayOffset;
+    final int daysInMonth;
+    final int width;
+    final int rowHeight;
+    final int edgePadding;
+    final int headerSize;
+
+    // Cell of every day, indexed by day - 1
+    private final int[] mCenterX;
+    private final int[] mLeft;
+    private final int[] mRight;
+    private final int[] mTop;
+
+    private MonthGeometry(int dayOffset, int daysInMonth, int width, int rowHeight,
+                          int edgePadding, int headerSize) {
+        this.dayOffset = dayOffset;
+        this.daysInMonth = daysInMonth;
+        this.width = width;
+        this.rowHeight = rowHeight;
+        this.edgePadding = edgePadding;
+        this.headerSize = headerSize;
+
+        mCenterX = new int[daysInMonth];
+        mLeft = new int[daysInMonth];
+        mRight = new int[daysInMonth];
+        mTop = new int[daysInMonth];
+        final float dayWidthHalf = (width - edgePadding * 2) / (DAYS_IN_WEEK * 2.0f);
+        for (int i = 0; i < daysInMonth; i++) {
+            final int column = (i + dayOffset) % DAYS_IN_WEEK;
+            final int row = (i + dayOffset) / DAYS_IN_WEEK;
+            final int x = (int) ((2 * column + 1) * dayWidthHalf + edgePadding);
+            mCenterX[i] = x;
+            mLeft[i] = (int) (x - dayWidthHalf);
+            mRight[i] = (int) (x + dayWidthHalf);
+            mTop[i] = headerSize + row * rowHeight;
+        }
+    }
+
+    /**
+     * @param year      the year of the month
+     * @param month     the month, 0-11
+     * @param weekStart the first day of the week, {@link java.util.Calendar#SUNDAY} to
+     *                  {@link java.util.Calendar#SATURDAY}
+     * @return the geometry of the month, from a small least recently used cache
+     */
+    static MonthGeometry get(int year, int month, int weekStart, int width, int rowHeight,
+                             int edgePadding, int headerSize) {
+        final int dayOfWeekStart = EpochDay.dayOfWeek(EpochDay.of(year, month, 1));
+        final int dayOffset = EpochDay.floorMod(dayOfWeekStart - weekStart, DAYS_IN_WEEK);
+        final int daysInMonth = EpochDay.daysInMonth(year, month);
+
+        int free = -1;
+        int oldest = 0;
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            final MonthGeometry geometry = sCache[i];
+            if (geometry == null) {
+                if (free < 0) free = i;
+            } else if (geometry.matches(dayOffset, daysInMonth, width, rowHeight, edgePadding, headerSize)) {
+                sCacheLastUse[i] = ++sClock;
+                return geometry;
+            } else if (sCacheLastUse[i] < sCacheLastUse[oldest]) {
+                oldest = i;
+            }
+        }
+        // Evict the least recently used geometry if there is no free slot
+        final int slot = free >= 0 ? free : oldest;
+        final MonthGeometry geometry = new MonthGeometry(dayOffset, daysInMonth, width, rowHeight,
+                edgePadding, headerSize);
+        sCache[slot] = geometry;
+        sCacheLastUse[slot] = ++sClock;
+        return geometry;
+    }
+
+    private boolean matches(int dayOffset, int daysInMonth, int width, int rowHeight,
+                            int edgePadding, int headerSize) {
+        return this.dayOffset == dayOffset && this.daysInMonth == daysInMonth && this.width == width
+                && this.rowHeight == rowHeight && this.edgePadding == edgePadding
+                && this.headerSize == headerSize;
+    }
+
+    /**
+     * @return the x position of the center of the day's cell
+     */
+    int getCenterX(int day) {
+        return mCenterX[day - 1];
+    }
+
+    int getLeft(int day) {
+        return mLeft[day - 1];
+    }
+
+    int getRight(int day) {
+        return mRight[day - 1];
+    }
+
+    int getTop(int day) {
+        return mTop[day - 1];
+    }
+
+    /**
+     * Sets the rect to the cell of the day
+     */
+    void getBounds(int day, Rect rect) {
+        rect.set(mLeft[day - 1], mTop[day - 1], mRight[day - 1], mTop[day - 1] + rowHeight);
+    }
+
+    /**
+     * @return the day whose cell contains the position, which is below 1 or above the number of
+     * days if the position is in an empty cell, or -1 if it is outside of the grid columns
+     */
+    int getDayFromLocation(float x, float y) {
+        if (x < edgePadding || x > width - edgePadding) {
+            return -1;
+        }
+        // Selection is (x - start) / (pixels/day) == (x -s) * day / pixels
+        final int row = (int) (y - headerSize) / rowHeight;
+        final int column = (int) ((x - edgePadding) * DAYS_IN_WEEK / (width - 2 * edgePadding));
+        return column - dayOffset + 1 + row * DAYS_IN_WEEK;
+    }
+}
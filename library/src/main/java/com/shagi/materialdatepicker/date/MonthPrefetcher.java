@@ -0,0 +1,120 @@
+package com.shagi.materialdatepicker.date;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Computes the out of range masks of the months around the displayed one on a background
+ * executor, so drawing a month only has to read a finished result. Only worth it for custom
+ * {@link DateRangeLimiter}s doing real work per day, which must then be safe to query from a
+ * background thread.
+ * <p/>
+ * All methods other than the counters are called from the main thread.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class MonthPrefetcher {
+    // Set on every filled slot, masks only use the lower 31 bits
+    private static final long VALID = 1L << 31;
+
+    private final DateRangeLimiter mLimiter;
+    private final Executor mExecutor;
+    private final int mMonths;
+    // Direct mapped results: the month index in the upper 32 bits, VALID and the mask in the
+    // lower 32 bits. Replaced on invalidate, so late background results land in the old array.
+    private volatile AtomicLongArray mResults;
+    // Month index last scheduled for every slot, only touched by the main thread
+    private final int[] mScheduled;
+    private volatile int mHitCount;
+    private volatile int mMissCount;
+
+    MonthPrefetcher(@NonNull DateRangeLimiter limiter, int months, @NonNull Executor executor) {
+        if (months < 1) {
+            throw new IllegalArgumentException("At least one month must be prefetched");
+        }
+        mLimiter = limiter;
+        mMonths = months;
+        mExecutor = executor;
+        // Room for all prefetched months, rounded up to a power of two
+        final int size = Integer.highestOneBit(2 * (2 * months + 1) - 1) << 1;
+        mResults = new AtomicLongArray(size);
+        mScheduled = new int[size];
+        clearScheduled();
+    }
+
+    /**
+     * Schedules the months within the prefetch distance of the given month and within the range
+     * of the limiter which have not been computed or scheduled yet
+     */
+    void prefetchAround(int year, int month) {
+        final AtomicLongArray results = mResults;
+        final int center = year * 12 + month;
+        final int first = Math.max(center - mMonths, mLimiter.getStartMonthIndex());
+        final int last = Math.min(center + mMonths, mLimiter.getEndMonthIndex());
+        for (int monthIndex = first; monthIndex <= last; monthIndex++) {
+            final int slot = monthIndex & (mScheduled.length - 1);
+            if (mScheduled[slot] == monthIndex) continue;
+            mScheduled[slot] = monthIndex;
+            final int index = monthIndex;
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final int mask = mLimiter.getOutOfRangeMask(
+                            EpochDay.floorDiv(index, 12), EpochDay.floorMod(index, 12));
+                    results.set(index & (results.length() - 1), entry(index, mask));
+                }
+            });
+        }
+    }
+
+    /**
+     * @return the out of range mask of the month, computed right away if it was not prefetched
+     */
+    int getOutOfRangeMask(int year, int month) {
+        final AtomicLongArray results = mResults;
+        final int monthIndex = year * 12 + month;
+        final int slot = monthIndex & (results.length() - 1);
+        final long entry = results.get(slot);
+        if ((entry & VALID) != 0 && (int) (entry >> 32) == monthIndex) {
+            mHitCount++;
+            return (int) (entry & ~VALID);
+        }
+        mMissCount++;
+        final int mask = mLimiter.getOutOfRangeMask(year, month);
+        results.set(slot, entry(monthIndex, mask));
+        mScheduled[slot] = monthIndex;
+        return mask;
+    }
+
+    /**
+     * Drops every prefetched result. Call this when the availability of the limiter changed,
+     * {@link DatePickerFragmentDialog#notifyDateRangeLimiterChanged()} does so and redraws.
+     */
+    public void invalidate() {
+        mResults = new AtomicLongArray(mScheduled.length);
+        clearScheduled();
+    }
+
+    private void clearScheduled() {
+        for (int i = 0; i < mScheduled.length; i++) mScheduled[i] = Integer.MIN_VALUE;
+    }
+
+    private static long entry(int monthIndex, int mask) {
+        return ((long) monthIndex << 32) | VALID | (mask & 0xFFFFFFFFL & ~VALID);
+    }
+
+    /**
+     * @return the number of months drawn from a prefetched result
+     */
+    public int getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * @return the number of months which had to be computed while drawing
+     */
+    public int getMissCount() {
+        return mMissCount;
+    }
+}
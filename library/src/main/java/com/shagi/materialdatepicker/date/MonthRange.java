@@ -0,0 +1,83 @@
+package com.shagi.materialdatepicker.date;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * The months shown by a {@link MonthAdapter}, from a first to a last month as year * 12 + month,
+ * and their positions. Changes are reported to an observer as the positions they affect, so
+ * months which stay in the range keep their views.
+ */
+final class MonthRange {
+    // First month as year * 12 + month, position 0
+    private int mStartMonthIndex;
+    private int mMonthCount;
+
+    int getStartMonthIndex() {
+        return mStartMonthIndex;
+    }
+
+    int getCount() {
+        return mMonthCount;
+    }
+
+    /**
+     * @return the year of the month at the given position
+     */
+    int getYear(int position) {
+        return (mStartMonthIndex + position) / MonthAdapter.MONTHS_IN_YEAR;
+    }
+
+    /**
+     * @return the month, 0-11, at the given position
+     */
+    int getMonth(int position) {
+        return (mStartMonthIndex + position) % MonthAdapter.MONTHS_IN_YEAR;
+    }
+
+    /**
+     * @return the position of the given month, which is outside of [0, getCount()) if the month
+     * is out of range
+     */
+    int getPosition(int year, int month) {
+        return year * MonthAdapter.MONTHS_IN_YEAR + month - mStartMonthIndex;
+    }
+
+    /**
+     * Moves the range to the given first and last month. Months are identified by themselves,
+     * so only the months coming and going at either end are reported, unless the new range has
+     * nothing in common with the old one.
+     */
+    void update(int startMonthIndex, int endMonthIndex, @NonNull RecyclerView.AdapterDataObserver observer) {
+        final int oldStart = mStartMonthIndex;
+        final int oldEnd = oldStart + mMonthCount - 1;
+        final int oldCount = mMonthCount;
+        mStartMonthIndex = startMonthIndex;
+        mMonthCount = endMonthIndex - startMonthIndex + 1;
+
+        if (oldCount == 0 || startMonthIndex > oldEnd || endMonthIndex < oldStart) {
+            observer.onChanged();
+            return;
+        }
+        if (startMonthIndex < oldStart) observer.onItemRangeInserted(0, oldStart - startMonthIndex);
+        else if (startMonthIndex > oldStart) observer.onItemRangeRemoved(0, startMonthIndex - oldStart);
+        if (endMonthIndex > oldEnd) {
+            observer.onItemRangeInserted(oldEnd - startMonthIndex + 1, endMonthIndex - oldEnd);
+        } else if (endMonthIndex < oldEnd) {
+            observer.onItemRangeRemoved(endMonthIndex - startMonthIndex + 1, oldEnd - endMonthIndex);
+        }
+    }
+
+    /**
+     * Reports the months from the first to the last given month which are part of the range as
+     * changed. Integer.MIN_VALUE and Integer.MAX_VALUE stand for no bound.
+     *
+     * @param payload passed on to the observer, null to bind the months again in full
+     */
+    void notifyChanged(int firstMonthIndex, int lastMonthIndex, Object payload,
+                       @NonNull RecyclerView.AdapterDataObserver observer) {
+        final int first = Math.max(firstMonthIndex, mStartMonthIndex);
+        final int last = Math.min(lastMonthIndex, mStartMonthIndex + mMonthCount - 1);
+        if (first <= last) observer.onItemRangeChanged(first - mStartMonthIndex, last - first + 1, payload);
+    }
+}
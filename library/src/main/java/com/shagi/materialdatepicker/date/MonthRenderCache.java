@@ -0,0 +1,127 @@
+package com.shagi.materialdatepicker.date;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the rendered content of recently drawn months as bitmaps, so scrolling back to a month
+ * or flinging past it only draws a bitmap. A month is rendered again when its render state
+ * changes, for example when the selection or its available days change.
+ * <p/>
+ * The cache holds as many months as whole bitmaps of the current month size fit in its budget,
+ * up to {@link #MAX_MONTHS}.
+ * A bitmap stays with the view which drew it until the view draws another month or is detached,
+ * see {@link MonthRenderSlots}. Views which find every bitmap shown by another view, or every
+ * view when not even one bitmap fits, draw directly. The bitmap of the least recently drawn month
+ * no view shows is reused for the next month, so scrolling does not allocate.
+ * <p/>
+ * Only used from the main thread.
+ */
+final class MonthRenderCache {
+    // Bounds the per-draw lookup when the months are small compared to the budget
+    private static final int MAX_MONTHS = 24;
+
+    private final int mMaxBytes;
+    private final Canvas mCanvas = new Canvas();
+    private final int[] mState = new int[MonthView.RENDER_STATE_SIZE];
+    private Entry[] mEntries = new Entry[0];
+    private MonthRenderSlots mSlots = new MonthRenderSlots(0);
+    private int mWidth;
+    private int mHeight;
+
+    private static final class Entry {
+        final int[] state = new int[MonthView.RENDER_STATE_SIZE];
+        Bitmap bitmap;
+        String title;
+        String[] dayLabels;
+    }
+
+    /**
+     * @param maxBytes the total size of the bitmaps kept
+     */
+    MonthRenderCache(int maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("The cache size must be positive");
+        }
+        mMaxBytes = maxBytes;
+    }
+
+    /**
+     * Draws the month of the view from its cached bitmap, rendering it first if the bitmap is
+     * missing or from another render state
+     *
+     * @return false if no bitmap of the view's size is free for the view, and nothing was drawn
+     */
+    boolean draw(@NonNull MonthView view, @NonNull Canvas canvas) {
+        final int width = view.getWidth();
+        final int height = view.getHeight();
+        if (width != mWidth || height != mHeight) resize(width, height);
+
+        view.getRenderState(mState);
+        final int slot = mSlots.acquire(view, mState[0]);
+        if (slot == MonthRenderSlots.NONE) return false;
+
+        final Entry entry = mEntries[slot];
+        final String title = view.getMonthAndYearString();
+        final String[] dayLabels = view.getWeekDayLabels();
+        if (entry.bitmap == null || !Arrays.equals(entry.state, mState) || !title.equals(entry.title)
+                || dayLabels != entry.dayLabels) {
+            render(view, entry, title, dayLabels);
+        }
+        canvas.drawBitmap(entry.bitmap, 0, 0, null);
+        return true;
+    }
+
+    /**
+     * Frees the bitmap the view shows for other views, once the view no longer draws it
+     */
+    void release(@NonNull MonthView view) {
+        mSlots.release(view);
+    }
+
+    private void render(@NonNull MonthView view, @NonNull Entry entry, String title, String[] dayLabels) {
+        if (entry.bitmap == null) {
+            entry.bitmap = Bitmap.createBitmap(mWidth, mHeight, Bitmap.Config.ARGB_8888);
+        } else {
+            entry.bitmap.eraseColor(Color.TRANSPARENT);
+        }
+        mCanvas.setBitmap(entry.bitmap);
+        view.drawMonth(mCanvas);
+        mCanvas.setBitmap(null);
+        System.arraycopy(mState, 0, entry.state, 0, mState.length);
+        entry.title = title;
+        entry.dayLabels = dayLabels;
+    }
+
+    /**
+     * Drops the bitmaps of the previous size and makes room for as many months of the new size
+     * as fit
+     */
+    private void resize(int width, int height) {
+        evictAll();
+        mWidth = width;
+        mHeight = height;
+        final long bitmapBytes = (long) width * height * 4;
+        final int capacity = bitmapBytes > 0 ? (int) Math.min(mMaxBytes / bitmapBytes, MAX_MONTHS) : 0;
+        mEntries = new Entry[capacity];
+        for (int i = 0; i < capacity; i++) mEntries[i] = new Entry();
+        mSlots = new MonthRenderSlots(capacity);
+    }
+
+    /**
+     * Drops every bitmap. Views which still show one keep it until they are drawn again.
+     */
+    void evictAll() {
+        for (Entry entry : mEntries) {
+            // Not recycled, the bitmap may still be referenced by a recorded display list
+            entry.bitmap = null;
+            entry.title = null;
+            entry.dayLabels = null;
+        }
+        mSlots.clear();
+    }
+}
@@ -0,0 +1,89 @@
+package com.shagi.materialdatepicker.date;
+
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Decides which of a fixed number of rendered month slots a view draws from. A slot is owned by
+ * the view which drew it last until that view draws another month or is detached, because the
+ * display list the view recorded still shows the slot's bitmap. A slot owned by a view is never
+ * handed to another one, so a view draws directly when every slot is shown by another view.
+ * <p/>
+ * Only used from the main thread.
+ */
+final class MonthRenderSlots {
+    static final int NONE = -1;
+
+    private final int[] mMonths;
+    private final boolean[] mFilled;
+    private final Object[] mOwners;
+    private final long[] mLastUse;
+    private long mClock;
+
+    MonthRenderSlots(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity can not be negative");
+        }
+        mMonths = new int[capacity];
+        mFilled = new boolean[capacity];
+        mOwners = new Object[capacity];
+        mLastUse = new long[capacity];
+    }
+
+    int getCapacity() {
+        return mMonths.length;
+    }
+
+    /**
+     * Gives the owner the slot of the month, or the least recently used slot no other owner
+     * shows. The owner no longer shows the slot it drew before.
+     *
+     * @param owner      the view about to draw the month
+     * @param monthIndex the year * 12 + month of the month drawn
+     * @return the slot now owned by the owner, which holds the month if it was rendered before, or
+     * {@link #NONE} if the month is shown by another owner or every slot is
+     */
+    int acquire(@NonNull Object owner, int monthIndex) {
+        release(owner);
+        int slot = NONE;
+        for (int i = 0; i < mMonths.length; i++) {
+            if (mFilled[i] && mMonths[i] == monthIndex) {
+                if (mOwners[i] != null) return NONE;
+                slot = i;
+                break;
+            }
+        }
+        if (slot == NONE) {
+            for (int i = 0; i < mMonths.length; i++) {
+                if (mOwners[i] != null) continue;
+                // Empty slots first, then the least recently used one
+                if (slot == NONE || (mFilled[slot] && !mFilled[i])
+                        || (mFilled[slot] == mFilled[i] && mLastUse[i] < mLastUse[slot])) {
+                    slot = i;
+                }
+            }
+            if (slot == NONE) return NONE;
+            mMonths[slot] = monthIndex;
+            mFilled[slot] = true;
+        }
+        mOwners[slot] = owner;
+        mLastUse[slot] = ++mClock;
+        return slot;
+    }
+
+    /**
+     * Frees the slot the owner shows, if any, so it can be reused for another month
+     */
+    void release(@NonNull Object owner) {
+        for (int i = 0; i < mOwners.length; i++) {
+            if (mOwners[i] == owner) mOwners[i] = null;
+        }
+    }
+
+    void clear() {
+        Arrays.fill(mFilled, false);
+        Arrays.fill(mOwners, null);
+        Arrays.fill(mLastUse, 0);
+    }
+}
@@ -0,0 +1,91 @@
+package com.shagi.materialdatepicker.date;
+
+import java.util.Arrays;
+
+/**
+ * Versions of the day states of each month, so a month view only binds again after a change
+ * which covered its month. The versions of recently changed months are kept in a table indexed
+ * by month, which holds any {@link #TABLE_SIZE} consecutive months. Other months share a base
+ * version, which changes with every change covering more months than the table holds.
+ * <p/>
+ * A month's version always changes when a change covers it. It may also change when its entry
+ * is replaced by a month {@link #TABLE_SIZE} months away, or when a wide change bumps the base,
+ * which only makes that month bind once more.
+ * <p/>
+ * Changes may be reported from any thread.
+ */
+final class MonthStateVersions {
+    private static final int TABLE_SIZE = 64;
+    private static final int NO_MONTH = Integer.MIN_VALUE;
+
+    // Month index held by each entry, NO_MONTH for none, and its version
+    private final int[] mMonths = new int[TABLE_SIZE];
+    private final int[] mVersions = new int[TABLE_SIZE];
+    private int mBaseVersion;
+    private int mVersion;
+
+    MonthStateVersions() {
+        Arrays.fill(mMonths, NO_MONTH);
+    }
+
+    /**
+     * Changes the version of every month
+     */
+    synchronized void changedAll() {
+        mBaseVersion = nextVersion();
+        Arrays.fill(mMonths, NO_MONTH);
+    }
+
+    /**
+     * Changes the version of the months from the first to the last given month index, both
+     * year * 12 + month
+     */
+    synchronized void changed(int firstMonthIndex, int lastMonthIndex) {
+        final int version = nextVersion();
+        if ((long) lastMonthIndex - firstMonthIndex < TABLE_SIZE) {
+            for (int monthIndex = firstMonthIndex; monthIndex <= lastMonthIndex; monthIndex++) {
+                final int entry = monthIndex & (TABLE_SIZE - 1);
+                mMonths[entry] = monthIndex;
+                mVersions[entry] = version;
+            }
+            return;
+        }
+        // Too many months for the table: every month without an entry gets the new version
+        mBaseVersion = version;
+        for (int entry = 0; entry < TABLE_SIZE; entry++) {
+            final int monthIndex = mMonths[entry];
+            if (monthIndex >= firstMonthIndex && monthIndex <= lastMonthIndex) mMonths[entry] = NO_MONTH;
+        }
+    }
+
+    /**
+     * Changes the version of the months from the first to the last given {@link EpochDay},
+     * Integer.MIN_VALUE and Integer.MAX_VALUE standing for no bound
+     */
+    void changedDays(int firstDay, int lastDay) {
+        if (firstDay == Integer.MIN_VALUE && lastDay == Integer.MAX_VALUE) {
+            changedAll();
+            return;
+        }
+        changed(firstDay == Integer.MIN_VALUE ? Integer.MIN_VALUE : monthIndex(firstDay),
+                lastDay == Integer.MAX_VALUE ? Integer.MAX_VALUE : monthIndex(lastDay));
+    }
+
+    /**
+     * @return a non-negative version which changes whenever a change covers the given month
+     */
+    synchronized int get(int monthIndex) {
+        final int entry = monthIndex & (TABLE_SIZE - 1);
+        return mMonths[entry] == monthIndex ? mVersions[entry] : mBaseVersion;
+    }
+
+    private int nextVersion() {
+        // Stays non-negative when it wraps around, a negative version disables the check
+        mVersion = (mVersion + 1) & Integer.MAX_VALUE;
+        return mVersion;
+    }
+
+    private static int monthIndex(int epochDay) {
+        return EpochDay.year(epochDay) * 12 + EpochDay.month(epochDay);
+    }
+}
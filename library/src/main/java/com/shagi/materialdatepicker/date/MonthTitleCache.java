@@ -0,0 +1,74 @@
+package com.shagi.materialdatepicker.date;
+
+import android.content.res.Resources;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.text.format.DateFormat;
+import android.util.SparseArray;
+
+import com.shagi.materialdatepicker.R;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Month and year titles shared by all month views, so drawing a month does not format a date.
+ * The titles are dropped when the locale or the time zone changes.
+ * <p/>
+ * Only used from the main thread.
+ */
+final class MonthTitleCache {
+    private static final int MAX_TITLES = 120;
+
+    private static Locale sLocale;
+    private static String sTimeZoneId;
+    private static SimpleDateFormat sFormatter;
+    private static Calendar sCalendar;
+    // Titles by year * 12 + month
+    private static final SparseArray<String> sTitles = new SparseArray<>();
+
+    private MonthTitleCache() {
+    }
+
+    /**
+     * @return the capitalized month and year title, such as "January 2018"
+     */
+    @NonNull
+    static String get(@NonNull Resources res, @NonNull Locale locale, @NonNull TimeZone timeZone,
+                      int year, int month) {
+        if (!locale.equals(sLocale) || !timeZone.getID().equals(sTimeZoneId)) {
+            reset(res, locale, timeZone);
+        }
+        final int key = year * 12 + month;
+        String title = sTitles.get(key);
+        if (title == null) {
+            if (sTitles.size() >= MAX_TITLES) sTitles.clear();
+            sCalendar.clear();
+            sCalendar.set(year, month, 1);
+            final String string = sFormatter.format(sCalendar.getTime());
+            title = string.substring(0, 1).toUpperCase() + string.substring(1);
+            sTitles.put(key, title);
+        }
+        return title;
+    }
+
+    private static void reset(@NonNull Resources res, @NonNull Locale locale, @NonNull TimeZone timeZone) {
+        String pattern = "MMMM yyyy";
+
+        if (Build.VERSION.SDK_INT < 18) {
+            pattern = res.getString(R.string.amdp_date_v1_monthyear);
+        } else {
+            pattern = DateFormat.getBestDateTimePattern(locale, pattern);
+        }
+
+        sFormatter = new SimpleDateFormat(pattern, locale);
+        sFormatter.setTimeZone(timeZone);
+        sFormatter.applyLocalizedPattern(pattern);
+        sCalendar = Calendar.getInstance(timeZone, locale);
+        sLocale = locale;
+        sTimeZoneId = timeZone.getID();
+        sTitles.clear();
+    }
+}
@@ -42,9 +42,11 @@ import com.shagi.materialdatepicker.R;
 
 import java.security.InvalidParameterException;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
+import java.util.TimeZone;
 
 /**
  * A calendar-like view displaying a specified month and the appropriate selectable day numbers
@@ -90,8 +92,6 @@ public abstract class MonthView extends View {
     protected Paint mSelectedCirclePaint;
     protected Paint mMonthDayLabelPaint;
 
-    private final StringBuilder mStringBuilder;
-
     // The Julian day of the first day displayed by this item
     protected int mFirstJulianDay = -1;
     // The month of the first day in this week
@@ -130,6 +130,37 @@ public abstract class MonthView extends View {
 
     protected int mNumRows = DEFAULT_NUM_ROWS;
 
+    // Flags of mDayStates kept by the view itself, next to the DatePickerController.DAY_STATE flags
+    protected static final int DAY_STATE_TODAY = 1 << 3;
+    protected static final int DAY_STATE_SELECTED = 1 << 4;
+
+    // Day numbers as strings, indexed by day of the month
+    protected static final String[] DAY_NUMBERS = new String[32];
+
+    static {
+        for (int day = 1; day < DAY_NUMBERS.length; day++) DAY_NUMBERS[day] = String.valueOf(day);
+    }
+
+    // DAY_STATE flags of every day of this month, filled by setMonthParams and setSelectedDay
+    protected final int[] mDayStates = new int[31];
+    // Bounds of a single day cell, reused to invalidate only that cell in software rendering
+    private final Rect mDayRect = new Rect();
+    // Cell positions for the current month and size, looked up lazily
+    private MonthGeometry mGeometry;
+    // Rendered months to draw from, null to draw every frame
+    private MonthRenderCache mRenderCache;
+    // Whether setMonthParams was called, and the day states it replaced
+    private boolean mHasMonth;
+    // Today and the controller's state version the day states were computed for
+    private int mBoundToday;
+    private int mBoundStateVersion;
+    private final int[] mPreviousDayStates = new int[31];
+    // Clip bounds of the canvas being drawn
+    private final Rect mClipBounds = new Rect();
+    // Whether day numbers are drawn from a DayNumberAtlas, and the atlas of the current frame
+    private boolean mUseDayNumberAtlas;
+    private DayNumberAtlas mDayNumberAtlas;
+
     // Optional listener for handling day click actions
     protected OnDayClickListener mOnDayClickListener;
 
@@ -145,6 +176,12 @@ public abstract class MonthView extends View {
     protected int mMonthTitleColor;
 
     private SimpleDateFormat weekDayLabelFormatter;
+    // Weekday labels of sDayLabelLocale and the last label row drawn, shared by all month views
+    private static Locale sDayLabelLocale;
+    private static String[] sDayLabels;
+    private static DayLabelRow sDayLabelRow;
+    // Theme the colors were resolved for
+    private boolean mAppliedThemeDark;
 
     public MonthView(Context context) {
         this(context, null, null);
@@ -161,23 +198,7 @@ public abstract class MonthView extends View {
         mDayOfWeekTypeface = res.getString(R.string.amdp_day_of_week_label_typeface);
         mMonthTitleTypeface = res.getString(R.string.amdp_sans_serif);
 
-        boolean darkTheme = mController != null && mController.isThemeDark();
-        if (darkTheme) {
-            mDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_text_normal_dark_theme);
-            mMonthDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_month_day_dark_theme);
-            mDisabledDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_text_disabled_dark_theme);
-            mHighlightedDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_text_highlighted_dark_theme);
-        } else {
-            mDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_text_normal);
-            mMonthDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_month_day);
-            mDisabledDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_text_disabled);
-            mHighlightedDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_text_highlighted);
-        }
-        mSelectedDayTextColor = ContextCompat.getColor(context, R.color.amdp_white);
-        mTodayNumberColor = mController.getAccentColor();
-        mMonthTitleColor = ContextCompat.getColor(context, R.color.amdp_white);
-
-        mStringBuilder = new StringBuilder(50);
+        applyControllerColors(context);
 
         MINI_DAY_NUMBER_TEXT_SIZE = res.getDimensionPixelSize(R.dimen.amdp_day_number_size);
         MONTH_LABEL_TEXT_SIZE = res.getDimensionPixelSize(R.dimen.amdp_month_label_size);
@@ -203,8 +224,45 @@ public abstract class MonthView extends View {
         initView();
     }
 
+    /**
+     * Attaches the view to a picker, for example when it is reused from a shared pool or was
+     * built before the picker was fully configured. Colors and time zone are taken from the
+     * controller if they changed.
+     */
     public void setDatePickerController(DatePickerController controller) {
+        if (controller == mController && controller.isThemeDark() == mAppliedThemeDark
+                && controller.getAccentColor() == mTodayNumberColor) {
+            return;
+        }
         mController = controller;
+        // Day states came from the previous controller or its colors, bind them again
+        mHasMonth = false;
+        final TimeZone timeZone = mController.getTimeZone();
+        mCalendar.setTimeZone(timeZone);
+        mDayLabelCalendar.setTimeZone(timeZone);
+        mTouchHelper.mTempCalendar.setTimeZone(timeZone);
+        applyControllerColors(getContext());
+        initView();
+        invalidate();
+    }
+
+    private void applyControllerColors(Context context) {
+        boolean darkTheme = mController != null && mController.isThemeDark();
+        mAppliedThemeDark = darkTheme;
+        if (darkTheme) {
+            mDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_text_normal_dark_theme);
+            mMonthDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_month_day_dark_theme);
+            mDisabledDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_text_disabled_dark_theme);
+            mHighlightedDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_text_highlighted_dark_theme);
+        } else {
+            mDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_text_normal);
+            mMonthDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_month_day);
+            mDisabledDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_text_disabled);
+            mHighlightedDayTextColor = ContextCompat.getColor(context, R.color.amdp_date_picker_text_highlighted);
+        }
+        mSelectedDayTextColor = ContextCompat.getColor(context, R.color.amdp_white);
+        mTodayNumberColor = mController.getAccentColor();
+        mMonthTitleColor = ContextCompat.getColor(context, R.color.amdp_white);
     }
 
     protected MonthViewTouchHelper getMonthViewTouchHelper() {
@@ -224,6 +282,18 @@ public abstract class MonthView extends View {
         mOnDayClickListener = listener;
     }
 
+    /**
+     * Drops the picker this view was bound to once it is recycled, so a pool shared between
+     * pickers does not keep a closed picker alive. Everything dropped is set again on the next
+     * bind.
+     */
+    void releasePicker() {
+        setRenderCache(null);
+        mController = null;
+        mOnDayClickListener = null;
+        mHasMonth = false;
+    }
+
     @Override
     public boolean dispatchHoverEvent(@NonNull MotionEvent event) {
         // First right-of-refusal goes the touch exploration helper.
@@ -287,11 +357,88 @@ public abstract class MonthView extends View {
 
     @Override
     protected void onDraw(Canvas canvas) {
-        drawMonthTitle(canvas);
-        drawMonthDayLabels(canvas);
+        final MonthRenderCache renderCache = mRenderCache;
+        if (renderCache == null || !renderCache.draw(this, canvas)) {
+            drawMonth(canvas);
+        }
+    }
+
+    /**
+     * Draws the whole month, either on screen or into a cached bitmap. When only some cells were
+     * invalidated in software rendering the canvas is clipped to them, and the header is skipped
+     * if it lies outside.
+     */
+    void drawMonth(Canvas canvas) {
+        if (!canvas.getClipBounds(mClipBounds) || mClipBounds.top < getMonthHeaderSize()) {
+            drawMonthTitle(canvas);
+            drawMonthDayLabels(canvas);
+        }
         drawMonthNums(canvas);
     }
 
+    /**
+     * Draws through the given cache of rendered months, or directly if it is null
+     */
+    void setRenderCache(MonthRenderCache renderCache) {
+        if (renderCache == mRenderCache) return;
+        if (mRenderCache != null) mRenderCache.release(this);
+        mRenderCache = renderCache;
+        invalidate();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // The bitmap drawn before being detached may have been reused for another month
+        if (mRenderCache != null) invalidate();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (mRenderCache != null) mRenderCache.release(this);
+    }
+
+    /**
+     * Draws the day numbers from pre-rasterized glyphs instead of laying out their text
+     */
+    void setUseDayNumberAtlas(boolean useDayNumberAtlas) {
+        if (useDayNumberAtlas == mUseDayNumberAtlas) return;
+        mUseDayNumberAtlas = useDayNumberAtlas;
+        invalidate();
+    }
+
+    /**
+     * The length of the render state filled by {@link #getRenderState(int[])}
+     */
+    static final int RENDER_STATE_SIZE = 17 + 31;
+
+    /**
+     * Fills the given array with the exact state the drawing of this month depends on besides its
+     * size, title and weekday labels. The month has to be rendered again whenever any of it changes.
+     */
+    void getRenderState(@NonNull int[] state) {
+        state[0] = mYear * 12 + mMonth;
+        state[1] = mSelectedDay;
+        state[2] = mBoundToday;
+        state[3] = mBoundStateVersion;
+        state[4] = mWeekStart;
+        state[5] = mRowHeight;
+        state[6] = mEdgePadding;
+        state[7] = getMonthHeaderSize();
+        state[8] = mDayTextColor;
+        state[9] = mSelectedDayTextColor;
+        state[10] = mMonthDayTextColor;
+        state[11] = mTodayNumberColor;
+        state[12] = mHighlightedDayTextColor;
+        state[13] = mDisabledDayTextColor;
+        state[14] = mMonthTitleColor;
+        state[15] = mUseDayNumberAtlas ? 1 : 0;
+        state[16] = mNumCells;
+        System.arraycopy(mDayStates, 0, state, 17, mNumCells);
+        Arrays.fill(state, 17 + mNumCells, RENDER_STATE_SIZE, 0);
+    }
+
     private int mDayOfWeekStart = 0;
 
     /**
@@ -305,58 +452,111 @@ public abstract class MonthView extends View {
             throw new InvalidParameterException("You must specify month and year for this view");
         }
 
+        final int newWeekStart = weekStart != -1 ? weekStart : mCalendar.getFirstDayOfWeek();
+        final int today = EpochDay.of(System.currentTimeMillis(), mController.getTimeZone());
+        final int stateVersion = mController.getStateVersion(year, month);
+        // Rebinding the shown month only redraws the cells whose state changes
+        final boolean sameMonth = mHasMonth && year == mYear && month == mMonth
+                && newWeekStart == mWeekStart;
+        if (sameMonth && stateVersion >= 0 && selectedDay == mSelectedDay && today == mBoundToday
+                && stateVersion == mBoundStateVersion) {
+            // Nothing any day depends on changed
+            return;
+        }
+        mBoundToday = today;
+        mBoundStateVersion = stateVersion;
+        if (sameMonth) System.arraycopy(mDayStates, 0, mPreviousDayStates, 0, mNumCells);
+        mHasMonth = true;
+
         mSelectedDay = selectedDay;
 
         // Allocate space for caching the day numbers and focus values
         mMonth = month;
         mYear = year;
 
-        // Figure out what day today is
-        //final Time today = new Time(Time.getCurrentTimezone());
-        //today.setToNow();
-        final Calendar today = Calendar.getInstance(mController.getTimeZone());
         mHasToday = false;
         mToday = -1;
 
-        mCalendar.set(Calendar.MONTH, mMonth);
-        mCalendar.set(Calendar.YEAR, mYear);
-        mCalendar.set(Calendar.DAY_OF_MONTH, 1);
-        mDayOfWeekStart = mCalendar.get(Calendar.DAY_OF_WEEK);
+        mDayOfWeekStart = EpochDay.dayOfWeek(EpochDay.of(mYear, mMonth, 1));
 
-        if (weekStart != -1) {
-            mWeekStart = weekStart;
-        } else {
-            mWeekStart = mCalendar.getFirstDayOfWeek();
+        mWeekStart = newWeekStart;
+
+        mNumCells = EpochDay.daysInMonth(mYear, mMonth);
+        if (!sameMonth) mGeometry = null;
+        if (EpochDay.year(today) == mYear && EpochDay.month(today) == mMonth) {
+            mHasToday = true;
+            mToday = EpochDay.dayOfMonth(today);
         }
 
-        mNumCells = mCalendar.getActualMaximum(Calendar.DAY_OF_MONTH);
-        for (int i = 0; i < mNumCells; i++) {
-            final int day = i + 1;
-            if (sameDay(day, today)) {
-                mHasToday = true;
-                mToday = day;
+        mController.getMonthState(mYear, mMonth, mDayStates);
+        if (mHasToday) mDayStates[mToday - 1] |= DAY_STATE_TODAY;
+        if (mSelectedDay >= 1 && mSelectedDay <= mNumCells) mDayStates[mSelectedDay - 1] |= DAY_STATE_SELECTED;
+
+        if (sameMonth) {
+            for (int day = 1; day <= mNumCells; day++) {
+                if (mDayStates[day - 1] != mPreviousDayStates[day - 1]) invalidateDay(day);
             }
+        } else {
+            invalidate();
+            // Invalidate cached accessibility information.
+            mTouchHelper.invalidateRoot();
         }
-
-        // Invalidate cached accessibility information.
-        mTouchHelper.invalidateRoot();
     }
 
+    /**
+     * Moves the selection within this month and redraws only the cells of the old and new
+     * selected day.
+     *
+     * @param day the selected day of the month, or -1 if it is in another month
+     */
     public void setSelectedDay(int day) {
+        if (day == mSelectedDay) return;
+        final int oldDay = mSelectedDay;
         mSelectedDay = day;
+        if (oldDay >= 1 && oldDay <= mNumCells) mDayStates[oldDay - 1] &= ~DAY_STATE_SELECTED;
+        if (day >= 1 && day <= mNumCells) mDayStates[day - 1] |= DAY_STATE_SELECTED;
+        invalidateDay(oldDay);
+        invalidateDay(day);
     }
 
-    private int calculateNumRows() {
-        int offset = findDayOffset();
-        int dividend = (offset + mNumCells) / mNumDays;
-        int remainder = (offset + mNumCells) % mNumDays;
-        return (dividend + (remainder > 0 ? 1 : 0));
+    /**
+     * Invalidates the cell of the day, redrawing it and its accessibility node. Only software
+     * rendering redraws just the cell: hardware acceleration ignores dirty rectangles and
+     * records the whole view again, and a render cache renders the whole month again anyway.
+     */
+    private void invalidateDay(int day) {
+        if (day < 1 || day > mNumCells) return;
+        if (isHardwareAccelerated() || mRenderCache != null) {
+            invalidate();
+        } else {
+            getDayBounds(day, mDayRect);
+            invalidate(mDayRect);
+        }
+        mTouchHelper.invalidateVirtualView(day);
     }
 
-    private boolean sameDay(int day, Calendar today) {
-        return mYear == today.get(Calendar.YEAR) &&
-                mMonth == today.get(Calendar.MONTH) &&
-                day == today.get(Calendar.DAY_OF_MONTH);
+    /**
+     * Calculates the bounds of the cell of a day of this month
+     *
+     * @param day  The day to calculate bounds for
+     * @param rect The rectangle in which to store the bounds
+     */
+    protected void getDayBounds(int day, Rect rect) {
+        getGeometry().getBounds(day, rect);
+    }
+
+    /**
+     * @return the cell positions of this month at the current size
+     */
+    MonthGeometry getGeometry() {
+        final MonthGeometry geometry = mGeometry;
+        final int headerSize = getMonthHeaderSize();
+        if (geometry != null && geometry.width == mWidth && geometry.rowHeight == mRowHeight
+                && geometry.edgePadding == mEdgePadding && geometry.headerSize == headerSize) {
+            return geometry;
+        }
+        return mGeometry = MonthGeometry.get(mYear, mMonth, mWeekStart, mWidth, mRowHeight,
+                mEdgePadding, headerSize);
     }
 
     @Override
@@ -388,22 +588,10 @@ public abstract class MonthView extends View {
     }
 
     @NonNull
-    private String getMonthAndYearString() {
-        Locale locale = Locale.getDefault();
-        String pattern = "MMMM yyyy";
-
-        if (Build.VERSION.SDK_INT < 18) {
-            pattern = getContext().getResources().getString(R.string.amdp_date_v1_monthyear);
-        } else {
-            pattern = DateFormat.getBestDateTimePattern(locale, pattern);
-        }
-
-        SimpleDateFormat formatter = new SimpleDateFormat(pattern, locale);
-        formatter.setTimeZone(mController.getTimeZone());
-        formatter.applyLocalizedPattern(pattern);
-        mStringBuilder.setLength(0);
-        String string = formatter.format(mCalendar.getTime());
-        return string.substring(0, 1).toUpperCase() + string.substring(1);
+    String getMonthAndYearString() {
+        // The calendar holds the controller's time zone without copying it on every draw
+        return MonthTitleCache.get(getResources(), Locale.getDefault(), mCalendar.getTimeZone(),
+                mYear, mMonth);
     }
 
     protected void drawMonthTitle(Canvas canvas) {
@@ -414,16 +602,37 @@ public abstract class MonthView extends View {
 
     protected void drawMonthDayLabels(Canvas canvas) {
         int y = getMonthHeaderSize() - (MONTH_DAY_LABEL_TEXT_SIZE / 2);
-        int dayWidthHalf = (mWidth - mEdgePadding * 2) / (mNumDays * 2);
+        final String[] labels = getWeekDayLabels();
 
-        for (int i = 0; i < mNumDays; i++) {
-            int x = (2 * i + 1) * dayWidthHalf + mEdgePadding;
+        // Pictures can only be replayed on hardware accelerated canvases from API 23
+        if (Build.VERSION.SDK_INT < 23 && canvas.isHardwareAccelerated()) {
+            DayLabelRow.draw(canvas, labels, mWeekStart, mWidth, mEdgePadding, y, mMonthDayLabelPaint);
+            return;
+        }
+        DayLabelRow row = sDayLabelRow;
+        if (row == null || !row.matches(labels, mWeekStart, mWidth, mEdgePadding, y, mMonthDayLabelPaint)) {
+            row = sDayLabelRow = new DayLabelRow(labels, mWeekStart, mWidth, mEdgePadding, y, mMonthDayLabelPaint);
+        }
+        row.replay(canvas);
+    }
 
-            int calendarDay = (i + mWeekStart) % mNumDays;
-            mDayLabelCalendar.set(Calendar.DAY_OF_WEEK, calendarDay);
-            String weekString = getWeekDayLabel(mDayLabelCalendar);
-            canvas.drawText(weekString, x, y, mMonthDayLabelPaint);
+    /**
+     * @return the weekday labels of the current locale by {@link Calendar#DAY_OF_WEEK}, shared
+     * by all month views
+     */
+    String[] getWeekDayLabels() {
+        final Locale locale = Locale.getDefault();
+        if (!locale.equals(sDayLabelLocale)) {
+            weekDayLabelFormatter = null;
+            final String[] labels = new String[mNumDays + 1];
+            for (int dayOfWeek = Calendar.SUNDAY; dayOfWeek <= Calendar.SATURDAY; dayOfWeek++) {
+                mDayLabelCalendar.set(Calendar.DAY_OF_WEEK, dayOfWeek);
+                labels[dayOfWeek] = getWeekDayLabel(mDayLabelCalendar);
+            }
+            sDayLabels = labels;
+            sDayLabelLocale = locale;
         }
+        return sDayLabels;
     }
 
     /**
@@ -433,28 +642,25 @@ public abstract class MonthView extends View {
      * @param canvas The canvas to draw on
      */
     protected void drawMonthNums(Canvas canvas) {
-        int y = (((mRowHeight + MINI_DAY_NUMBER_TEXT_SIZE) / 2) - DAY_SEPARATOR_WIDTH)
-                + getMonthHeaderSize();
-        final float dayWidthHalf = (mWidth - mEdgePadding * 2) / (mNumDays * 2.0f);
-        int j = findDayOffset();
+        final MonthGeometry geometry = getGeometry();
+        final int yRelativeToDay = (mRowHeight + MINI_DAY_NUMBER_TEXT_SIZE) / 2 - DAY_SEPARATOR_WIDTH;
 
-        for (int dayNumber = 1; dayNumber <= mNumCells; dayNumber++) {
-            final int x = (int) ((2 * j + 1) * dayWidthHalf + mEdgePadding);
-
-            int yRelativeToDay = (mRowHeight + MINI_DAY_NUMBER_TEXT_SIZE) / 2 - DAY_SEPARATOR_WIDTH;
+        // Checked every frame, the atlas is replaced when the font scale or density changed
+        mDayNumberAtlas = mUseDayNumberAtlas ? DayNumberAtlas.get(mMonthNumPaint, getResources()) : null;
 
-            final int startX = (int) (x - dayWidthHalf);
-            final int stopX = (int) (x + dayWidthHalf);
-            final int startY = (int) (y - yRelativeToDay);
-            final int stopY = (int) (startY + mRowHeight);
+        // Only the invalidated cells need drawing
+        final Rect clip = mClipBounds;
+        final boolean clipped = canvas.getClipBounds(clip);
 
-            drawMonthDay(canvas, mYear, mMonth, dayNumber, x, y, startX, stopX, startY, stopY);
-
-            j++;
-            if (j == mNumDays) {
-                j = 0;
-                y += mRowHeight;
+        for (int dayNumber = 1; dayNumber <= mNumCells; dayNumber++) {
+            final int startY = geometry.getTop(dayNumber);
+            if (clipped && !clip.intersects(geometry.getLeft(dayNumber), startY,
+                    geometry.getRight(dayNumber), startY + mRowHeight)) {
+                continue;
             }
+            drawMonthDay(canvas, mYear, mMonth, dayNumber, geometry.getCenterX(dayNumber),
+                    startY + yRelativeToDay, geometry.getLeft(dayNumber), geometry.getRight(dayNumber),
+                    startY, startY + mRowHeight);
         }
     }
 
@@ -475,6 +681,17 @@ public abstract class MonthView extends View {
     public abstract void drawMonthDay(Canvas canvas, int year, int month, int day,
                                       int x, int y, int startX, int stopX, int startY, int stopY);
 
+    /**
+     * Draws the number of the day centered on x with its baseline on y, from the glyph atlas
+     * if it is enabled and as text otherwise
+     */
+    protected void drawDayNumber(Canvas canvas, int day, int x, int y, Paint paint) {
+        final DayNumberAtlas atlas = mDayNumberAtlas;
+        if (atlas == null || !atlas.draw(canvas, day, x, y, paint)) {
+            canvas.drawText(DAY_NUMBERS[day], x, y, paint);
+        }
+    }
+
     protected int findDayOffset() {
         return (mDayOfWeekStart < mWeekStart ? (mDayOfWeekStart + mNumDays) : mDayOfWeekStart)
                 - mWeekStart;
@@ -504,17 +721,7 @@ public abstract class MonthView extends View {
      * @return The day number
      */
     protected int getInternalDayFromLocation(float x, float y) {
-        int dayStart = mEdgePadding;
-        if (x < dayStart || x > mWidth - mEdgePadding) {
-            return -1;
-        }
-        // Selection is (x - start) / (pixels/day) == (x -s) * day / pixels
-        int row = (int) (y - getMonthHeaderSize()) / mRowHeight;
-        int column = (int) ((x - dayStart) * mNumDays / (mWidth - dayStart - mEdgePadding));
-
-        int day = column - findDayOffset() + 1;
-        day += row * mNumDays;
-        return day;
+        return getGeometry().getDayFromLocation(x, y);
     }
 
     /**
@@ -527,13 +734,13 @@ public abstract class MonthView extends View {
      */
     private void onDayClick(int day) {
         // If the min / max date are set, only process the click if it's a valid selection.
-        if (mController.isOutOfRange(mYear, mMonth, day)) {
+        if (mController == null || mController.isOutOfRange(EpochDay.of(mYear, mMonth, day))) {
             return;
         }
 
 
         if (mOnDayClickListener != null) {
-            mOnDayClickListener.onDayClick(this, new MonthAdapter.CalendarDay(mYear, mMonth, day));
+            mOnDayClickListener.onDayClick(this, mYear, mMonth, day);
         }
 
         // This is a no-op if accessibility is turned off.
@@ -611,6 +818,15 @@ public abstract class MonthView extends View {
         return null;
     }
 
+    /**
+     * @return The epoch day that has accessibility focus, or {@link EpochDaySet#NONE} if no date
+     * has focus
+     */
+    int getAccessibilityFocusedEpochDay() {
+        final int day = mTouchHelper.getFocusedVirtualView();
+        return day >= 0 ? EpochDay.of(mYear, mMonth, day) : EpochDaySet.NONE;
+    }
+
     /**
      * Clears accessibility focus within the view. No-op if the view does not
      * contain accessibility focus.
@@ -634,6 +850,14 @@ public abstract class MonthView extends View {
         return true;
     }
 
+    boolean restoreAccessibilityFocus(int epochDay) {
+        if (EpochDay.year(epochDay) != mYear || EpochDay.month(epochDay) != mMonth) {
+            return false;
+        }
+        mTouchHelper.setFocusedVirtualView(EpochDay.dayOfMonth(epochDay));
+        return true;
+    }
+
     /**
      * Provides a virtual view hierarchy for interfacing with an accessibility
      * service.
@@ -718,17 +942,7 @@ public abstract class MonthView extends View {
          * @param rect The rectangle in which to store the bounds
          */
         protected void getItemBounds(int day, Rect rect) {
-            final int offsetX = mEdgePadding;
-            final int offsetY = getMonthHeaderSize();
-            final int cellHeight = mRowHeight;
-            final int cellWidth = ((mWidth - (2 * mEdgePadding)) / mNumDays);
-            final int index = ((day - 1) + findDayOffset());
-            final int row = (index / mNumDays);
-            final int column = (index % mNumDays);
-            final int x = (offsetX + (column * cellWidth));
-            final int y = (offsetY + (row * cellHeight));
-
-            rect.set(x, y, (x + cellWidth), (y + cellHeight));
+            getDayBounds(day, rect);
         }
 
         /**
@@ -747,6 +961,9 @@ public abstract class MonthView extends View {
             if (day == mSelectedDay) {
                 return getContext().getString(R.string.amdp_item_is_selected, date);
             }
+            if ((mDayStates[day - 1] & DatePickerController.DAY_STATE_PENDING) != 0) {
+                return getContext().getString(R.string.amdp_item_is_loading, date);
+            }
 
             return date;
         }
@@ -757,5 +974,13 @@ public abstract class MonthView extends View {
      */
     public interface OnDayClickListener {
         void onDayClick(MonthView view, MonthAdapter.CalendarDay day);
+
+        /**
+         * Called on every click instead of the CalendarDay variant. Override it to handle clicks
+         * without allocating.
+         */
+        default void onDayClick(MonthView view, int year, int month, int day) {
+            onDayClick(view, new MonthAdapter.CalendarDay(year, month, day));
+        }
     }
 }
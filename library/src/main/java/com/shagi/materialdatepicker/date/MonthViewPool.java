@@ -0,0 +1,105 @@
+package com.shagi.materialdatepicker.date;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * Keeps the month views of closed pickers for the next picker opened in the same activity, so
+ * only the first one has to build them. Views hold on to their activity, so the pool belongs to
+ * one activity at a time and is dropped when that activity is destroyed.
+ * <p/>
+ * Only used from the main thread.
+ */
+final class MonthViewPool {
+    private static final int MAX_MONTH_VIEWS = 6;
+
+    private static Activity sActivity;
+    private static RecyclerView.RecycledViewPool sPool;
+    private static boolean sCallbacksRegistered;
+
+    private MonthViewPool() {
+    }
+
+    /**
+     * @return the pool of the given activity, replacing the pool of any other activity
+     */
+    @NonNull
+    static RecyclerView.RecycledViewPool get(@NonNull Activity activity) {
+        if (activity != sActivity) {
+            if (!sCallbacksRegistered) {
+                activity.getApplication().registerActivityLifecycleCallbacks(sLifecycleCallbacks);
+                sCallbacksRegistered = true;
+            }
+            sActivity = activity;
+            sPool = new RecyclerView.RecycledViewPool();
+            sPool.setMaxRecycledViews(0, MAX_MONTH_VIEWS);
+        }
+        return sPool;
+    }
+
+    /**
+     * Builds month views into the pool of the activity while the main thread is idle, one view
+     * per idle pass, so the picker opened next can skip building them. Views are built by the
+     * given adapter, so they are of the class its pickers show.
+     */
+    static void prewarm(@NonNull final Activity activity, @NonNull final MonthAdapter adapter, int count) {
+        final RecyclerView.RecycledViewPool pool = get(activity);
+        final int views = Math.min(count, MAX_MONTH_VIEWS);
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            private int mRemaining = views;
+
+            @Override
+            public boolean queueIdle() {
+                // Stop once the pool was dropped or replaced
+                if (pool != sPool || mRemaining <= 0 || pool.getRecycledViewCount(0) >= MAX_MONTH_VIEWS) {
+                    return false;
+                }
+                final MonthView view = adapter.createMonthView(activity);
+                // Pooled views must not keep the picker which built them
+                view.releasePicker();
+                pool.putRecycledView(MonthAdapter.newViewHolder(view));
+                return --mRemaining > 0;
+            }
+        });
+    }
+
+    private static final Application.ActivityLifecycleCallbacks sLifecycleCallbacks
+            = new Application.ActivityLifecycleCallbacks() {
+        @Override
+        public void onActivityDestroyed(Activity activity) {
+            if (activity == sActivity) {
+                sActivity = null;
+                sPool = null;
+            }
+        }
+
+        @Override
+        public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityStarted(Activity activity) {
+        }
+
+        @Override
+        public void onActivityResumed(Activity activity) {
+        }
+
+        @Override
+        public void onActivityPaused(Activity activity) {
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+        }
+    };
+}
@@ -0,0 +1,371 @@
+package com.shagi.materialdatepicker.date;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link DateRangeLimiter} for availability that is too large or too slow to load up front,
+ * such as availability coming from a backend. Months are requested from an
+ * {@link AvailabilitySource} the first time they are drawn and kept in a small least recently
+ * used cache. Days of a month which has not loaded yet are pending: they are drawn as loading
+ * and can not be selected. Once the month arrives the picker redraws just that month, and the
+ * {@link OnMonthLoadedListener} set by the app is told about it.
+ * <p/>
+ * The source can not be parcelled. When the picker is restored, set it again on the limiter
+ * returned by {@link DatePickerFragmentDialog#getDateRangeLimiter()}.
+ */
+@SuppressWarnings("WeakerAccess")
+public class PagedDateRangeLimiter implements DateRangeLimiter {
+    private static final int DEFAULT_CACHE_SIZE = 24;
+    // Returned by getAvailableDays for months which have not loaded, masks only use 31 bits
+    private static final int NOT_LOADED = -1;
+
+    /**
+     * Provides the available days of a month
+     */
+    public interface AvailabilitySource {
+        /**
+         * Starts loading a month. Call {@link Callback#onMonthLoaded(int, int, int)} once with the
+         * result, from any thread, either right away or later.
+         *
+         * @param year  the year of the month to load
+         * @param month the month to load, 0-11
+         */
+        void loadMonth(int year, int month, @NonNull Callback callback);
+    }
+
+    public interface Callback {
+        /**
+         * @param availableDays a mask with bit (day - 1) set for every available day of the month
+         */
+        void onMonthLoaded(int year, int month, int availableDays);
+    }
+
+    public interface OnMonthLoadedListener {
+        void onMonthLoaded(int year, int month);
+    }
+
+    private final int mStartDay;
+    private final int mEndDay;
+    private final Executor mCallbackExecutor;
+    private AvailabilitySource mSource;
+    private OnMonthLoadedListener mListener;
+    // Redraws loaded months in the picker, apart from the app's listener
+    private OnMonthLoadedListener mPickerListener;
+    private transient volatile DatePickerController mController;
+
+    // Loaded months, as year * 12 + month, with their masks and the clock of their last use
+    private final int[] mCachedMonths;
+    private final int[] mCachedMasks;
+    private final long[] mCachedLastUse;
+    private int mCachedCount;
+    private long mClock;
+    // Months requested from the source which did not arrive yet
+    private int[] mPendingMonths = new int[8];
+    private int mPendingCount;
+
+    private final Callback mCallback = new Callback() {
+        @Override
+        public void onMonthLoaded(final int year, final int month, final int availableDays) {
+            mCallbackExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    removePending(year * 12 + month);
+                    putMonth(year * 12 + month, availableDays);
+                    if (mPickerListener != null) mPickerListener.onMonthLoaded(year, month);
+                    if (mListener != null) mListener.onMonthLoaded(year, month);
+                }
+            });
+        }
+    };
+
+    /**
+     * @param startDate the first day that can ever be available
+     * @param endDate   the last day that can ever be available
+     * @param source    loads the availability of a month
+     */
+    public PagedDateRangeLimiter(@NonNull Calendar startDate, @NonNull Calendar endDate,
+                                 @NonNull AvailabilitySource source) {
+        this(startDate, endDate, source, DEFAULT_CACHE_SIZE, mainThreadExecutor());
+    }
+
+    /**
+     * @param cacheSize        the number of months kept in memory
+     * @param callbackExecutor runs loaded months into the limiter. It must run them on the main
+     *                         thread and, unless the source always answers later, post them
+     *                         rather than run them right away.
+     */
+    public PagedDateRangeLimiter(@NonNull Calendar startDate, @NonNull Calendar endDate,
+                                 @Nullable AvailabilitySource source, int cacheSize,
+                                 @NonNull Executor callbackExecutor) {
+        this(EpochDay.of(startDate), EpochDay.of(endDate), cacheSize, callbackExecutor);
+        mSource = source;
+    }
+
+    private PagedDateRangeLimiter(int startDay, int endDay, int cacheSize, @NonNull Executor callbackExecutor) {
+        if (endDay < startDay) {
+            throw new IllegalArgumentException("End date must be later than or equal to start date");
+        }
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least one month");
+        }
+        mStartDay = startDay;
+        mEndDay = endDay;
+        mCallbackExecutor = callbackExecutor;
+        mCachedMonths = new int[cacheSize];
+        mCachedMasks = new int[cacheSize];
+        mCachedLastUse = new long[cacheSize];
+    }
+
+    @NonNull
+    private static Executor mainThreadExecutor() {
+        final Handler handler = new Handler(Looper.getMainLooper());
+        return new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                handler.post(command);
+            }
+        };
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public PagedDateRangeLimiter(Parcel in) {
+        this(in.readInt(), in.readInt(), in.readInt(), mainThreadExecutor());
+        final int count = in.readInt();
+        for (int i = 0; i < count; i++) putMonth(in.readInt(), in.readInt());
+    }
+
+    @Override
+    public void writeToParcel(Parcel out, int flags) {
+        out.writeInt(mStartDay);
+        out.writeInt(mEndDay);
+        out.writeInt(mCachedMonths.length);
+        out.writeInt(mCachedCount);
+        for (int i = 0; i < mCachedCount; i++) {
+            out.writeInt(mCachedMonths[i]);
+            out.writeInt(mCachedMasks[i]);
+        }
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    public static final Parcelable.Creator<PagedDateRangeLimiter> CREATOR
+            = new Parcelable.Creator<PagedDateRangeLimiter>() {
+        public PagedDateRangeLimiter createFromParcel(Parcel in) {
+            return new PagedDateRangeLimiter(in);
+        }
+
+        public PagedDateRangeLimiter[] newArray(int size) {
+            return new PagedDateRangeLimiter[size];
+        }
+    };
+
+    /**
+     * Sets the source months are loaded from. Months which were requested from a previous source
+     * and did not arrive yet are requested again the next time they are drawn.
+     */
+    public void setAvailabilitySource(@Nullable AvailabilitySource source) {
+        mSource = source;
+        mPendingCount = 0;
+    }
+
+    public void setOnMonthLoadedListener(@Nullable OnMonthLoadedListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Sets the listener of the picker showing this limiter, called before the app's listener
+     */
+    void setPickerListener(@Nullable OnMonthLoadedListener listener) {
+        mPickerListener = listener;
+    }
+
+    void setController(@NonNull DatePickerController controller) {
+        mController = controller;
+    }
+
+    /**
+     * @return true if the availability of the month is in memory
+     */
+    public boolean isLoaded(int year, int month) {
+        return findMonth(year * 12 + month) >= 0;
+    }
+
+    @Override
+    public int getMinYear() {
+        return EpochDay.year(mStartDay);
+    }
+
+    @Override
+    public int getMaxYear() {
+        return EpochDay.year(mEndDay);
+    }
+
+    @NonNull
+    @Override
+    public Calendar getStartDate() {
+        return EpochDay.toCalendar(mStartDay, getTimeZone());
+    }
+
+    @NonNull
+    @Override
+    public Calendar getEndDate() {
+        return EpochDay.toCalendar(mEndDay, getTimeZone());
+    }
+
+    @NonNull
+    private TimeZone getTimeZone() {
+        final DatePickerController controller = mController;
+        return controller == null ? TimeZone.getDefault() : controller.getTimeZone();
+    }
+
+    @Override
+    public int getStartMonthIndex() {
+        return EpochDay.year(mStartDay) * 12 + EpochDay.month(mStartDay);
+    }
+
+    @Override
+    public int getEndMonthIndex() {
+        return EpochDay.year(mEndDay) * 12 + EpochDay.month(mEndDay);
+    }
+
+    @Override
+    public boolean isOutOfRange(int year, int month, int day) {
+        return isOutOfRange(EpochDay.of(year, month, day));
+    }
+
+    /**
+     * Days of months which have not loaded yet are out of range too, so they can not be
+     * selected before their availability is known.
+     */
+    @Override
+    public boolean isOutOfRange(int epochDay) {
+        if (epochDay < mStartDay || epochDay > mEndDay) return true;
+        final int mask = getAvailableDays(EpochDay.year(epochDay), EpochDay.month(epochDay));
+        return mask == NOT_LOADED || (mask & (1 << (EpochDay.dayOfMonth(epochDay) - 1))) == 0;
+    }
+
+    /**
+     * Days of months which have not loaded yet are left out, they are reported by
+     * {@link #getPendingMask(int, int)} instead.
+     */
+    @Override
+    public int getOutOfRangeMask(int year, int month) {
+        final int allDays = (1 << EpochDay.daysInMonth(year, month)) - 1;
+        final int inRange = getInRangeMask(year, month);
+        if (inRange == 0) return allDays;
+
+        final int available = getAvailableDays(year, month);
+        if (available == NOT_LOADED) return ~inRange & allDays;
+        return ~(available & inRange) & allDays;
+    }
+
+    @Override
+    public int getPendingMask(int year, int month) {
+        final int inRange = getInRangeMask(year, month);
+        if (inRange == 0) return 0;
+        return getAvailableDays(year, month) == NOT_LOADED ? inRange : 0;
+    }
+
+    /**
+     * @return a mask with bit (day - 1) set for every day of the month from the start to the end
+     */
+    private int getInRangeMask(int year, int month) {
+        final int firstDay = EpochDay.of(year, month, 1);
+        final int daysInMonth = EpochDay.daysInMonth(year, month);
+        if (firstDay > mEndDay || firstDay + daysInMonth <= mStartDay) return 0;
+
+        int mask = (1 << daysInMonth) - 1;
+        // Clear the days of the month before the start and after the end
+        if (mStartDay > firstDay) mask &= -1 << (mStartDay - firstDay);
+        if (mEndDay < firstDay + daysInMonth - 1) mask &= (1 << (mEndDay - firstDay + 1)) - 1;
+        return mask;
+    }
+
+    /**
+     * Clamps the day to the start and end date. Availability of months which have not loaded yet
+     * is unknown, so days are not moved any further.
+     */
+    @NonNull
+    @Override
+    public Calendar setToNearestDate(@NonNull Calendar calendar) {
+        final int day = EpochDay.of(calendar);
+        if (day < mStartDay) return EpochDay.withEpochDay(calendar, mStartDay);
+        if (day > mEndDay) return EpochDay.withEpochDay(calendar, mEndDay);
+        return calendar;
+    }
+
+    /**
+     * @return the available days mask of the month, or NOT_LOADED if it has not loaded yet, in
+     * which case the month is requested from the source
+     */
+    private int getAvailableDays(int year, int month) {
+        final int monthIndex = year * 12 + month;
+        final int slot = findMonth(monthIndex);
+        if (slot >= 0) {
+            mCachedLastUse[slot] = ++mClock;
+            return mCachedMasks[slot];
+        }
+        if (mSource != null && addPending(monthIndex)) mSource.loadMonth(year, month, mCallback);
+        return NOT_LOADED;
+    }
+
+    /**
+     * @return false if the month was already pending
+     */
+    private boolean addPending(int monthIndex) {
+        for (int i = 0; i < mPendingCount; i++) {
+            if (mPendingMonths[i] == monthIndex) return false;
+        }
+        if (mPendingCount == mPendingMonths.length) {
+            mPendingMonths = Arrays.copyOf(mPendingMonths, mPendingCount * 2);
+        }
+        mPendingMonths[mPendingCount++] = monthIndex;
+        return true;
+    }
+
+    private void removePending(int monthIndex) {
+        for (int i = 0; i < mPendingCount; i++) {
+            if (mPendingMonths[i] == monthIndex) {
+                mPendingMonths[i] = mPendingMonths[--mPendingCount];
+                return;
+            }
+        }
+    }
+
+    private int findMonth(int monthIndex) {
+        for (int i = 0; i < mCachedCount; i++) {
+            if (mCachedMonths[i] == monthIndex) return i;
+        }
+        return -1;
+    }
+
+    private void putMonth(int monthIndex, int mask) {
+        int slot = findMonth(monthIndex);
+        if (slot < 0 && mCachedCount < mCachedMonths.length) {
+            slot = mCachedCount++;
+        } else if (slot < 0) {
+            // Evict the least recently used month
+            slot = 0;
+            for (int i = 1; i < mCachedCount; i++) {
+                if (mCachedLastUse[i] < mCachedLastUse[slot]) slot = i;
+            }
+        }
+        mCachedMonths[slot] = monthIndex;
+        // Only days 1 to 31 count, which also keeps the mask apart from NOT_LOADED
+        mCachedMasks[slot] = mask & Integer.MAX_VALUE;
+        mCachedLastUse[slot] = ++mClock;
+    }
+}
@@ -22,6 +22,10 @@ import android.graphics.Typeface;
 import android.util.AttributeSet;
 
 public class SimpleMonthView extends MonthView {
+    private static final Typeface NORMAL = Typeface.create(Typeface.DEFAULT, Typeface.NORMAL);
+    private static final Typeface BOLD = Typeface.create(Typeface.DEFAULT, Typeface.BOLD);
+    // Alpha of the number of a day whose availability is still loading
+    private static final int PENDING_DAY_ALPHA = 0x61;
 
     public SimpleMonthView(Context context, AttributeSet attr, DatePickerController controller) {
         super(context, attr, controller);
@@ -30,31 +34,39 @@ public class SimpleMonthView extends MonthView {
     @Override
     public void drawMonthDay(Canvas canvas, int year, int month, int day,
                              int x, int y, int startX, int stopX, int startY, int stopY) {
-        if (mSelectedDay == day) {
+        final int state = mDayStates[day - 1];
+        final boolean highlighted = (state & DatePickerController.DAY_STATE_HIGHLIGHTED) != 0;
+        final boolean selected = (state & DAY_STATE_SELECTED) != 0;
+
+        if (selected) {
             canvas.drawCircle(x, y - (MINI_DAY_NUMBER_TEXT_SIZE / 3), DAY_SELECTED_CIRCLE_SIZE,
                     mSelectedCirclePaint);
         }
 
-        if (isHighlighted(year, month, day) && mSelectedDay != day) {
+        if (highlighted && !selected) {
             canvas.drawCircle(x, y + MINI_DAY_NUMBER_TEXT_SIZE - DAY_HIGHLIGHT_CIRCLE_MARGIN,
                     DAY_HIGHLIGHT_CIRCLE_SIZE, mSelectedCirclePaint);
-            mMonthNumPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
+            mMonthNumPaint.setTypeface(BOLD);
         } else {
-            mMonthNumPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.NORMAL));
+            mMonthNumPaint.setTypeface(NORMAL);
         }
 
         // gray out the day number if it's outside the range.
-        if (mController.isOutOfRange(year, month, day)) {
+        if ((state & DatePickerController.DAY_STATE_OUT_OF_RANGE) != 0) {
             mMonthNumPaint.setColor(mDisabledDayTextColor);
-        } else if (mSelectedDay == day) {
-            mMonthNumPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
+        } else if (selected) {
+            mMonthNumPaint.setTypeface(BOLD);
             mMonthNumPaint.setColor(mSelectedDayTextColor);
-        } else if (mHasToday && mToday == day) {
+        } else if ((state & DatePickerController.DAY_STATE_PENDING) != 0) {
+            // Faded rather than grayed out, its availability is not known yet
+            mMonthNumPaint.setColor(mDayTextColor);
+            mMonthNumPaint.setAlpha(PENDING_DAY_ALPHA);
+        } else if ((state & DAY_STATE_TODAY) != 0) {
             mMonthNumPaint.setColor(mTodayNumberColor);
         } else {
-            mMonthNumPaint.setColor(isHighlighted(year, month, day) ? mHighlightedDayTextColor : mDayTextColor);
+            mMonthNumPaint.setColor(highlighted ? mHighlightedDayTextColor : mDayTextColor);
         }
 
-        canvas.drawText(String.valueOf(day), x, y, mMonthNumPaint);
+        drawDayNumber(canvas, day, x, y, mMonthNumPaint);
     }
 }
@@ -0,0 +1,59 @@
+package com.shagi.materialdatepicker.date;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the value semantics of MonthAdapter.CalendarDay
+ */
+public class CalendarDayTest {
+
+    @Test
+    public void equalDaysShouldBeEqualAndHashAlike() {
+        MonthAdapter.CalendarDay first = new MonthAdapter.CalendarDay(2018, Calendar.MARCH, 10);
+        MonthAdapter.CalendarDay second = new MonthAdapter.CalendarDay(2018, Calendar.MARCH, 10);
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertFalse(first.equals(new MonthAdapter.CalendarDay(2018, Calendar.MARCH, 11)));
+        assertFalse(first.equals(new MonthAdapter.CalendarDay(2018, Calendar.APRIL, 10)));
+        assertFalse(first.equals(new MonthAdapter.CalendarDay(2019, Calendar.MARCH, 10)));
+    }
+
+    @Test
+    public void differentDaysOfARangeShouldHashApart() {
+        Set<Integer> hashes = new HashSet<>();
+        final int first = EpochDay.of(2015, Calendar.JANUARY, 1);
+        for (int day = first; day < first + 3 * 365; day++) {
+            hashes.add(MonthAdapter.CalendarDay.ofEpochDay(day).hashCode());
+        }
+        assertEquals(3 * 365, hashes.size());
+    }
+
+    @Test
+    public void epochDayShouldRoundTrip() {
+        for (int day = -1000; day <= 1000; day += 7) {
+            MonthAdapter.CalendarDay calendarDay = MonthAdapter.CalendarDay.ofEpochDay(day);
+            assertEquals(day, calendarDay.toEpochDay());
+        }
+        MonthAdapter.CalendarDay day = MonthAdapter.CalendarDay.ofEpochDay(0);
+        assertEquals(1970, day.getYear());
+        assertEquals(Calendar.JANUARY, day.getMonth());
+        assertEquals(1, day.getDay());
+    }
+
+    @Test
+    public void setShouldCopyTheDay() {
+        MonthAdapter.CalendarDay source = new MonthAdapter.CalendarDay(2018, Calendar.MARCH, 10);
+        MonthAdapter.CalendarDay copy = new MonthAdapter.CalendarDay(0, 0, 0);
+
+        copy.set(source);
+        source.setDay(2019, Calendar.MAY, 1);
+        assertEquals(new MonthAdapter.CalendarDay(2018, Calendar.MARCH, 10), copy);
+    }
+}
@@ -0,0 +1,171 @@
+package com.shagi.materialdatepicker.date;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the recurring DateRules, checked against a day by day search
+ */
+public class DateRuleTest {
+
+    private static Calendar date(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day);
+        return calendar;
+    }
+
+    @Test
+    public void daysOfWeekShouldMatchEveryWeek() {
+        DateRule weekend = DateRule.daysOfWeek(Calendar.SATURDAY, Calendar.SUNDAY);
+
+        // 2018-03-10 is a Saturday
+        assertTrue(weekend.matches(EpochDay.of(2018, Calendar.MARCH, 10)));
+        assertTrue(weekend.matches(EpochDay.of(2018, Calendar.MARCH, 11)));
+        assertFalse(weekend.matches(EpochDay.of(2018, Calendar.MARCH, 12)));
+        assertTrue(weekend.matches(EpochDay.of(1969, Calendar.DECEMBER, 28)));
+    }
+
+    @Test
+    public void nthDayOfWeekShouldMatchOncePerMonth() {
+        DateRule firstMonday = DateRule.nthDayOfWeek(1, Calendar.MONDAY);
+        DateRule fifthFriday = DateRule.nthDayOfWeek(5, Calendar.FRIDAY);
+
+        assertTrue(firstMonday.matches(EpochDay.of(2018, Calendar.MARCH, 5)));
+        assertFalse(firstMonday.matches(EpochDay.of(2018, Calendar.MARCH, 12)));
+        assertTrue(fifthFriday.matches(EpochDay.of(2018, Calendar.MARCH, 30)));
+        // February 2018 only has four Fridays
+        for (int day = 1; day <= 28; day++) {
+            assertFalse(fifthFriday.matches(EpochDay.of(2018, Calendar.FEBRUARY, day)));
+        }
+    }
+
+    @Test
+    public void lastDayOfWeekShouldMatchTheFinalOccurrence() {
+        DateRule lastSunday = DateRule.nthDayOfWeek(DateRule.LAST, Calendar.SUNDAY);
+
+        assertTrue(lastSunday.matches(EpochDay.of(2018, Calendar.MARCH, 25)));
+        assertFalse(lastSunday.matches(EpochDay.of(2018, Calendar.MARCH, 18)));
+        // Leap day 2004-02-29 was a Sunday
+        assertTrue(lastSunday.matches(EpochDay.of(2004, Calendar.FEBRUARY, 29)));
+        assertFalse(lastSunday.matches(EpochDay.of(2004, Calendar.FEBRUARY, 22)));
+    }
+
+    @Test
+    public void everyNDaysShouldStartOnTheStartDay() {
+        DateRule everyThird = DateRule.everyNDays(date(1969, Calendar.DECEMBER, 30), 3);
+        final int start = EpochDay.of(1969, Calendar.DECEMBER, 30);
+
+        assertFalse(everyThird.matches(start - 3));
+        assertTrue(everyThird.matches(start));
+        assertFalse(everyThird.matches(start + 1));
+        assertTrue(everyThird.matches(start + 3));
+        assertEquals(start, everyThird.nextMatch(start - 100));
+        assertEquals(EpochDaySet.NONE, everyThird.previousMatch(start - 1));
+        assertEquals(start + 3, everyThird.previousMatch(start + 5));
+    }
+
+    @Test
+    public void everyNDaysShouldNotOverflowPastTheLastDay() {
+        DateRule rule = DateRule.everyNDays(date(2018, Calendar.JANUARY, 1), 1000);
+
+        assertEquals(EpochDaySet.NONE, rule.nextMatch(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void nextAndPreviousMatchShouldFindTheClosestMatches() {
+        DateRule[] rules = {
+                DateRule.daysOfWeek(Calendar.WEDNESDAY),
+                DateRule.nthDayOfWeek(1, Calendar.SUNDAY),
+                DateRule.nthDayOfWeek(5, Calendar.MONDAY),
+                DateRule.nthDayOfWeek(DateRule.LAST, Calendar.SATURDAY),
+                DateRule.everyNDays(date(2015, Calendar.JUNE, 3), 17),
+        };
+        final int first = EpochDay.of(2015, Calendar.JANUARY, 1);
+        final int last = EpochDay.of(2020, Calendar.DECEMBER, 31);
+        for (DateRule rule : rules) {
+            int previous = EpochDaySet.NONE;
+            for (int day = first - 400; day < first; day++) {
+                if (rule.matches(day)) previous = day;
+            }
+            for (int day = first; day <= last; day++) {
+                if (rule.matches(day)) previous = day;
+                assertEquals("previous " + day, previous, rule.previousMatch(day));
+            }
+            int next = EpochDaySet.NONE;
+            for (int day = last + 400; day > last; day--) {
+                if (rule.matches(day)) next = day;
+            }
+            for (int day = last; day >= first; day--) {
+                if (rule.matches(day)) next = day;
+                assertEquals("next " + day, next, rule.nextMatch(day));
+            }
+        }
+    }
+
+    @Test
+    public void nextAndPreviousMismatchShouldFindTheClosestDaysNotMatched() {
+        DateRule[] rules = {
+                DateRule.daysOfWeek(Calendar.MONDAY, Calendar.TUESDAY, Calendar.WEDNESDAY),
+                DateRule.nthDayOfWeek(2, Calendar.TUESDAY),
+                DateRule.nthDayOfWeek(DateRule.LAST, Calendar.FRIDAY),
+                DateRule.everyNDays(date(2016, Calendar.MARCH, 3), 2),
+                DateRule.everyNDays(date(2016, Calendar.MARCH, 3), 1),
+        };
+        final int first = EpochDay.of(2015, Calendar.JANUARY, 1);
+        final int last = EpochDay.of(2017, Calendar.DECEMBER, 31);
+        for (DateRule rule : rules) {
+            for (int day = first; day <= last; day++) {
+                int next = day;
+                while (next <= last + 7 && rule.matches(next)) next++;
+                if (next > last + 7) next = EpochDaySet.NONE;
+                assertEquals("next " + day, next, rule.nextMismatch(day));
+
+                int previous = day;
+                while (rule.matches(previous)) previous--;
+                assertEquals("previous " + day, previous, rule.previousMismatch(day));
+            }
+        }
+    }
+
+    @Test
+    public void ruleMatchingEveryDayShouldHaveNoMismatch() {
+        DateRule everyDay = DateRule.daysOfWeek(Calendar.SUNDAY, Calendar.MONDAY, Calendar.TUESDAY,
+                Calendar.WEDNESDAY, Calendar.THURSDAY, Calendar.FRIDAY, Calendar.SATURDAY);
+
+        assertEquals(EpochDaySet.NONE, everyDay.nextMismatch(0));
+        assertEquals(EpochDaySet.NONE, everyDay.previousMismatch(0));
+    }
+
+    @Test
+    public void fifthWeekdayShouldBeFoundWithinTheSearchedMonths() {
+        // The longest gap between two fifth occurrences of a weekday is a few months, so a
+        // search of a year never gives up while a match exists
+        for (int dayOfWeek = Calendar.SUNDAY; dayOfWeek <= Calendar.SATURDAY; dayOfWeek++) {
+            DateRule rule = DateRule.nthDayOfWeek(5, dayOfWeek);
+            for (int day = EpochDay.of(1900, 0, 1); day <= EpochDay.of(2100, 0, 1); day += 5) {
+                assertTrue(rule.nextMatch(day) != EpochDaySet.NONE);
+                assertTrue(rule.previousMatch(day) != EpochDaySet.NONE);
+                assertTrue(rule.nextMatch(day) - day < 366);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ordinalAboveFiveShouldBeRejected() {
+        DateRule.nthDayOfWeek(6, Calendar.MONDAY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void dayOfWeekOutOfRangeShouldBeRejected() {
+        DateRule.daysOfWeek(Calendar.SATURDAY + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void intervalBelowOneShouldBeRejected() {
+        DateRule.everyNDays(date(2018, Calendar.JANUARY, 1), 0);
+    }
+}
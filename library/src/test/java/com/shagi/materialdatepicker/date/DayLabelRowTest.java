@@ -0,0 +1,35 @@
+package com.shagi.materialdatepicker.date;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the columns of the weekday labels
+ */
+public class DayLabelRowTest {
+
+    @Test
+    public void firstColumnShouldBeTheFirstDayOfTheWeek() {
+        for (int weekStart = Calendar.SUNDAY; weekStart <= Calendar.SATURDAY; weekStart++) {
+            assertEquals(weekStart, DayLabelRow.dayOfWeekAt(0, weekStart));
+        }
+        assertEquals(Calendar.SUNDAY, DayLabelRow.dayOfWeekAt(6, Calendar.MONDAY));
+        assertEquals(Calendar.FRIDAY, DayLabelRow.dayOfWeekAt(6, Calendar.SATURDAY));
+    }
+
+    @Test
+    public void labelsShouldBeAboveTheDaysOfTheirColumn() {
+        for (int weekStart = Calendar.SUNDAY; weekStart <= Calendar.SATURDAY; weekStart++) {
+            MonthGeometry geometry = MonthGeometry.get(2018, Calendar.MARCH, weekStart, 700, 80, 0, 100);
+            for (int day = 1; day <= geometry.daysInMonth; day++) {
+                final int column = (day - 1 + geometry.dayOffset) % 7;
+                assertEquals("week start " + weekStart + ", day " + day,
+                        EpochDay.dayOfWeek(EpochDay.of(2018, Calendar.MARCH, day)),
+                        DayLabelRow.dayOfWeekAt(column, weekStart));
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.shagi.materialdatepicker.date;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the nearest enabled day, the per-month masks and the state snapshots of the
+ * DefaultDateRangeLimiter
+ */
+public class DefaultDateRangeLimiterTest {
+    private DefaultDateRangeLimiter limiter;
+
+    private static Calendar date(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day);
+        return calendar;
+    }
+
+    private int nearest(int year, int month, int day) {
+        return EpochDay.of(limiter.setToNearestDate(date(year, month, day)));
+    }
+
+    private static int daysMask(int... days) {
+        int mask = 0;
+        for (int day : days) mask |= 1 << (day - 1);
+        return mask;
+    }
+
+    private int marchMask() {
+        return limiter.getOutOfRangeMask(2018, Calendar.MARCH);
+    }
+
+    @Before
+    public void setUp() {
+        limiter = new DefaultDateRangeLimiter();
+    }
+
+    @Test
+    public void enabledDayShouldBeItsOwnNearestDay() {
+        limiter.setDisabledDays(new Calendar[]{date(2018, Calendar.MARCH, 5)});
+
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 6), nearest(2018, Calendar.MARCH, 6));
+    }
+
+    @Test
+    public void nearestDayShouldLeaveADisabledRunOnItsCloserSide() {
+        limiter.setDisabledRanges(new Calendar[]{date(2018, Calendar.MARCH, 5)},
+                new Calendar[]{date(2018, Calendar.MARCH, 20)});
+
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 4), nearest(2018, Calendar.MARCH, 10));
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 21), nearest(2018, Calendar.MARCH, 16));
+    }
+
+    @Test
+    public void earlierDayShouldWinATie() {
+        limiter.setDisabledRanges(new Calendar[]{date(2018, Calendar.MARCH, 5)},
+                new Calendar[]{date(2018, Calendar.MARCH, 9)});
+
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 4), nearest(2018, Calendar.MARCH, 7));
+    }
+
+    @Test
+    public void laterSelectableDayShouldWinATie() {
+        limiter.setSelectableDays(new Calendar[]{date(2018, Calendar.MARCH, 1), date(2018, Calendar.MARCH, 5)});
+
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 5), nearest(2018, Calendar.MARCH, 3));
+    }
+
+    @Test
+    public void nearestDayShouldBeSelectableAndNotDisabled() {
+        limiter.setSelectableDays(new Calendar[]{date(2018, Calendar.MARCH, 1),
+                date(2018, Calendar.MARCH, 14), date(2018, Calendar.MARCH, 30)});
+        limiter.setDisabledDays(new Calendar[]{date(2018, Calendar.MARCH, 14)});
+
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 1), nearest(2018, Calendar.MARCH, 13));
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 30), nearest(2018, Calendar.MARCH, 17));
+    }
+
+    @Test
+    public void nearestDayShouldSkipDisabledRules() {
+        limiter.setDisabledRules(new DateRule[]{DateRule.daysOfWeek(Calendar.SATURDAY, Calendar.SUNDAY)});
+
+        // 2018-03-10 is a Saturday, the Friday before is closer than the Monday after
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 9), nearest(2018, Calendar.MARCH, 10));
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 12), nearest(2018, Calendar.MARCH, 11));
+    }
+
+    @Test
+    public void nearestDayShouldJumpPastDaysMatchedByAnIntervalRule() {
+        limiter.setDisabledRules(new DateRule[]{DateRule.everyNDays(date(2018, Calendar.MARCH, 1), 1)});
+
+        // Every day from March 1st on is disabled
+        assertEquals(EpochDay.of(2018, Calendar.FEBRUARY, 28), nearest(2018, Calendar.JUNE, 10));
+    }
+
+    @Test
+    public void dayShouldStayWhenRulesDisableEveryDay() {
+        limiter.setDisabledRules(new DateRule[]{
+                DateRule.daysOfWeek(Calendar.SATURDAY, Calendar.SUNDAY),
+                DateRule.daysOfWeek(Calendar.MONDAY, Calendar.TUESDAY, Calendar.WEDNESDAY,
+                        Calendar.THURSDAY, Calendar.FRIDAY)});
+
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 11), nearest(2018, Calendar.MARCH, 11));
+    }
+
+    @Test
+    public void nearestDayShouldStayWithinMinAndMaxDate() {
+        limiter.setMinDate(date(2018, Calendar.MARCH, 10));
+        limiter.setMaxDate(date(2018, Calendar.MARCH, 20));
+
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 10), nearest(2017, Calendar.JUNE, 1));
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 20), nearest(2019, Calendar.JUNE, 1));
+    }
+
+    @Test
+    public void dayShouldStayWhenNothingIsEnabled() {
+        limiter.setMinDate(date(2018, Calendar.MARCH, 10));
+        limiter.setMaxDate(date(2018, Calendar.MARCH, 12));
+        limiter.setDisabledRanges(new Calendar[]{date(2018, Calendar.MARCH, 1)},
+                new Calendar[]{date(2018, Calendar.MARCH, 31)});
+
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 11), nearest(2018, Calendar.MARCH, 11));
+    }
+
+    @Test
+    public void outOfRangeMaskShouldCoverDaysBeforeMinAndAfterMax() {
+        limiter.setMinDate(date(2018, Calendar.FEBRUARY, 10));
+        limiter.setMaxDate(date(2018, Calendar.FEBRUARY, 20));
+
+        int mask = limiter.getOutOfRangeMask(2018, Calendar.FEBRUARY);
+        // Days 10 to 20 are bits 9 to 19, February 2018 has 28 days
+        assertEquals(((1 << 28) - 1) & ~(((1 << 11) - 1) << 9), mask);
+    }
+
+    @Test
+    public void outOfRangeMaskShouldSplitARangeOverTwoMonths() {
+        limiter.setDisabledRanges(new Calendar[]{date(2018, Calendar.JANUARY, 30)},
+                new Calendar[]{date(2018, Calendar.FEBRUARY, 2)});
+
+        assertEquals(0b11 << 29, limiter.getOutOfRangeMask(2018, Calendar.JANUARY));
+        assertEquals(0b11, limiter.getOutOfRangeMask(2018, Calendar.FEBRUARY));
+    }
+
+    @Test
+    public void outOfRangeMaskShouldFollowChangedLimits() {
+        assertEquals(0, limiter.getOutOfRangeMask(2018, Calendar.MARCH));
+
+        limiter.setDisabledDays(new Calendar[]{date(2018, Calendar.MARCH, 31)});
+        assertEquals(1 << 30, limiter.getOutOfRangeMask(2018, Calendar.MARCH));
+        assertTrue(limiter.isOutOfRange(2018, Calendar.MARCH, 31));
+        assertFalse(limiter.isOutOfRange(2018, Calendar.MARCH, 30));
+    }
+
+    @Test
+    public void startAndEndShouldBeTheFirstAndLastSelectableDay() {
+        limiter.setSelectableDays(new Calendar[]{date(2018, Calendar.MAY, 3), date(2019, Calendar.JULY, 8)});
+
+        assertEquals(EpochDay.of(2018, Calendar.MAY, 3), EpochDay.of(limiter.getStartDate()));
+        assertEquals(EpochDay.of(2019, Calendar.JULY, 8), EpochDay.of(limiter.getEndDate()));
+        assertEquals(2018 * 12 + Calendar.MAY, limiter.getStartMonthIndex());
+        assertEquals(2019 * 12 + Calendar.JULY, limiter.getEndMonthIndex());
+    }
+
+    @Test
+    public void rangesShouldBeReadBackWithoutExpandingThem() {
+        limiter.setDisabledRanges(new Calendar[]{date(2000, Calendar.JANUARY, 1)},
+                new Calendar[]{date(2999, Calendar.DECEMBER, 31)});
+        limiter.setDisabledDays(new Calendar[]{date(1990, Calendar.MAY, 3)});
+
+        Calendar[][] ranges = limiter.getDisabledRanges();
+        assertEquals(2, ranges[0].length);
+        assertEquals(EpochDay.of(1990, Calendar.MAY, 3), EpochDay.of(ranges[0][0]));
+        assertEquals(EpochDay.of(1990, Calendar.MAY, 3), EpochDay.of(ranges[1][0]));
+        assertEquals(EpochDay.of(2000, Calendar.JANUARY, 1), EpochDay.of(ranges[0][1]));
+        assertEquals(EpochDay.of(2999, Calendar.DECEMBER, 31), EpochDay.of(ranges[1][1]));
+        assertNull(limiter.getSelectableRanges());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void daysOfLongRangesShouldNotBeExpanded() {
+        limiter.setSelectableRanges(new Calendar[]{date(2000, Calendar.JANUARY, 1)},
+                new Calendar[]{date(2999, Calendar.DECEMBER, 31)});
+
+        limiter.getSelectableDays();
+    }
+
+    @Test
+    public void daysOfShortRangesShouldBeExpanded() {
+        limiter.setSelectableRanges(new Calendar[]{date(2018, Calendar.MARCH, 30)},
+                new Calendar[]{date(2018, Calendar.APRIL, 2)});
+
+        Calendar[] days = limiter.getSelectableDays();
+        assertEquals(4, days.length);
+        assertEquals(EpochDay.of(2018, Calendar.APRIL, 2), EpochDay.of(days[3]));
+    }
+
+    @Test
+    public void monthsSharingACacheEntryShouldKeepTheirOwnMasks() {
+        limiter.setDisabledDays(new Calendar[]{date(2018, Calendar.MARCH, 2)});
+
+        assertEquals(daysMask(2), marchMask());
+        // 64 months later
+        assertEquals(0, limiter.getOutOfRangeMask(2023, Calendar.JULY));
+        assertEquals(daysMask(2), marchMask());
+    }
+
+    @Test
+    public void minAndMaxDateShouldReplaceCachedMasks() {
+        assertEquals(0, marchMask());
+
+        limiter.setMinDate(date(2018, Calendar.MARCH, 3));
+        assertEquals(daysMask(1, 2), marchMask());
+        limiter.setMaxDate(date(2018, Calendar.MARCH, 29));
+        assertEquals(daysMask(1, 2, 30, 31), marchMask());
+    }
+
+    @Test
+    public void rulesShouldReplaceCachedMasks() {
+        assertEquals(0, marchMask());
+
+        limiter.setDisabledRules(new DateRule[]{DateRule.daysOfWeek(Calendar.SUNDAY)});
+        assertEquals(daysMask(4, 11, 18, 25), marchMask());
+        // Only Mondays and Sundays are selectable, and Sundays are disabled
+        limiter.setSelectableRules(new DateRule[]{DateRule.daysOfWeek(Calendar.MONDAY, Calendar.SUNDAY)});
+        assertEquals(Integer.MAX_VALUE & ~daysMask(5, 12, 19, 26), marchMask());
+    }
+
+    @Test
+    public void selectableDaysShouldReplaceCachedMasks() {
+        assertEquals(0, marchMask());
+
+        limiter.setSelectableDays(new Calendar[]{date(2018, Calendar.MARCH, 7)});
+        assertEquals(Integer.MAX_VALUE & ~daysMask(7), marchMask());
+    }
+
+    @Test
+    public void yearRangeShouldReplaceCachedMasks() {
+        assertEquals(0, marchMask());
+
+        limiter.setYearRange(2019, 2020);
+        assertEquals(Integer.MAX_VALUE, marchMask());
+    }
+
+    @Test
+    public void changingTheArgumentsAfterwardsShouldNotChangeTheLimits() {
+        Calendar minDate = date(2018, Calendar.MARCH, 3);
+        DateRule[] rules = {DateRule.daysOfWeek(Calendar.SUNDAY)};
+        limiter.setMinDate(minDate);
+        limiter.setDisabledRules(rules);
+
+        minDate.set(Calendar.DAY_OF_MONTH, 20);
+        rules[0] = DateRule.daysOfWeek(Calendar.MONDAY);
+        assertEquals(daysMask(1, 2, 4, 11, 18, 25), marchMask());
+    }
+
+    @Test
+    public void returnedDatesShouldBeCopies() {
+        limiter.setMinDate(date(2018, Calendar.MARCH, 3));
+
+        limiter.getMinDate().add(Calendar.DAY_OF_MONTH, 5);
+        limiter.getStartDate().add(Calendar.DAY_OF_MONTH, 5);
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 3), EpochDay.of(limiter.getMinDate()));
+        assertEquals(EpochDay.of(2018, Calendar.MARCH, 3), EpochDay.of(limiter.getStartDate()));
+    }
+
+    @Test
+    public void readerShouldOnlySeeCompleteStatesWhileLimitsChange() throws InterruptedException {
+        final boolean[] failed = {false};
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                int previous = 0;
+                for (int i = 0; i < 20000; i++) {
+                    final int mask = marchMask();
+                    // Disabled days only grow from the 1st, and never go back to an older state
+                    if ((mask & (mask + 1)) != 0 || Integer.bitCount(mask) < Integer.bitCount(previous)) {
+                        failed[0] = true;
+                        return;
+                    }
+                    previous = mask;
+                }
+            }
+        });
+        reader.start();
+        for (int day = 1; day <= 31; day++) {
+            limiter.setDisabledRanges(new Calendar[]{date(2018, Calendar.MARCH, 1)},
+                    new Calendar[]{date(2018, Calendar.MARCH, day)});
+        }
+        reader.join();
+
+        assertFalse(failed[0]);
+        assertEquals(Integer.MAX_VALUE, marchMask());
+    }
+
+    @Test
+    public void monthIndicesShouldFollowEveryChangeOfTheRange() {
+        limiter.setYearRange(2000, 2030);
+        assertMonthIndicesMatchDates();
+        limiter.setMinDate(date(2010, Calendar.DECEMBER, 31));
+        assertMonthIndicesMatchDates();
+        limiter.setMaxDate(date(2011, Calendar.JANUARY, 1));
+        assertMonthIndicesMatchDates();
+        assertEquals(2010 * 12 + Calendar.DECEMBER, limiter.getStartMonthIndex());
+        assertEquals(2011 * 12 + Calendar.JANUARY, limiter.getEndMonthIndex());
+    }
+
+    @Test
+    public void monthIndicesShouldFollowSelectableRanges() {
+        limiter.setSelectableRanges(new Calendar[]{date(2016, Calendar.FEBRUARY, 28)},
+                new Calendar[]{date(2016, Calendar.MARCH, 1)});
+
+        assertMonthIndicesMatchDates();
+        assertEquals(2016 * 12 + Calendar.FEBRUARY, limiter.getStartMonthIndex());
+        assertEquals(2016 * 12 + Calendar.MARCH, limiter.getEndMonthIndex());
+    }
+
+    private void assertMonthIndicesMatchDates() {
+        final Calendar start = limiter.getStartDate();
+        final Calendar end = limiter.getEndDate();
+        assertEquals(start.get(Calendar.YEAR) * 12 + start.get(Calendar.MONTH), limiter.getStartMonthIndex());
+        assertEquals(end.get(Calendar.YEAR) * 12 + end.get(Calendar.MONTH), limiter.getEndMonthIndex());
+    }
+}
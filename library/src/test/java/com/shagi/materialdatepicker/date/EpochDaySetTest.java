@@ -0,0 +1,179 @@
+package com.shagi.materialdatepicker.date;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the run based EpochDaySet
+ */
+public class EpochDaySetTest {
+
+    @Test
+    public void overlappingAndTouchingRangesShouldMergeIntoOneRun() {
+        EpochDaySet set = EpochDaySet.ofRanges(new int[]{10, 5, 16}, new int[]{15, 12, 20});
+
+        assertArrayEquals(range(5, 20), set.toArray());
+        assertEquals(5, set.first());
+        assertEquals(20, set.last());
+        // One run: the first day outside of it is right after its end
+        assertEquals(21, set.nextAbsent(5));
+        assertEquals(4, set.previousAbsent(20));
+    }
+
+    @Test
+    public void separateRangesShouldStaySeparate() {
+        EpochDaySet set = EpochDaySet.ofRanges(new int[]{20, 1}, new int[]{22, 3});
+
+        assertArrayEquals(new int[]{1, 2, 3, 20, 21, 22}, set.toArray());
+        assertFalse(set.contains(4));
+        assertFalse(set.contains(19));
+        assertEquals(4, set.nextAbsent(2));
+        assertEquals(19, set.previousAbsent(21));
+    }
+
+    @Test
+    public void duplicateAndUnsortedDaysShouldCollapse() {
+        EpochDaySet set = EpochDaySet.of(new int[]{3, 1, 2, 2, 9, 1});
+
+        assertArrayEquals(new int[]{1, 2, 3, 9}, set.toArray());
+    }
+
+    @Test
+    public void negativeDaysShouldBeOrderedBeforePositiveOnes() {
+        EpochDaySet set = EpochDaySet.ofRanges(new int[]{5, -3}, new int[]{6, -1});
+
+        assertArrayEquals(new int[]{-3, -2, -1, 5, 6}, set.toArray());
+        assertEquals(-3, set.first());
+        assertEquals(5, set.ceiling(0));
+        assertEquals(-1, set.floor(0));
+    }
+
+    @Test
+    public void extremeDaysShouldNotOverflowWhenMerging() {
+        EpochDaySet set = EpochDaySet.ofRanges(new int[]{Integer.MAX_VALUE - 1, Integer.MIN_VALUE},
+                new int[]{Integer.MAX_VALUE, Integer.MIN_VALUE + 1});
+
+        assertTrue(set.contains(Integer.MIN_VALUE));
+        assertTrue(set.contains(Integer.MAX_VALUE));
+        assertFalse(set.contains(0));
+        assertEquals(EpochDaySet.NONE, set.lower(Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void navigationShouldReturnNoneOutsideOfTheSet() {
+        EpochDaySet set = EpochDaySet.ofRanges(new int[]{10}, new int[]{12});
+
+        assertEquals(10, set.ceiling(3));
+        assertEquals(EpochDaySet.NONE, set.ceiling(13));
+        assertEquals(12, set.floor(30));
+        assertEquals(EpochDaySet.NONE, set.floor(9));
+        assertEquals(11, set.lower(12));
+        assertEquals(EpochDaySet.NONE, set.lower(10));
+        assertEquals(EpochDaySet.NONE, EpochDaySet.EMPTY.first());
+    }
+
+    @Test
+    public void unionShouldMergeRunsOfBothSets() {
+        EpochDaySet first = EpochDaySet.ofRanges(new int[]{1, 10}, new int[]{3, 12});
+        EpochDaySet second = EpochDaySet.ofRanges(new int[]{4}, new int[]{9});
+
+        assertArrayEquals(range(1, 12), first.union(second).toArray());
+        assertSame(first, first.union(EpochDaySet.EMPTY));
+    }
+
+    @Test
+    public void maskShouldSetABitPerDayOfTheWindow() {
+        EpochDaySet set = EpochDaySet.ofRanges(new int[]{-2, 5, 30}, new int[]{1, 6, 40});
+
+        // Window of days 0 to 31
+        assertEquals(0b11 | (0b11 << 5) | (0b11 << 30), set.mask(0, 32));
+        assertEquals(0, set.mask(8, 20));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rangeEndingBeforeItsStartShouldBeRejected() {
+        EpochDaySet.ofRanges(new int[]{5}, new int[]{4});
+    }
+
+    @Test
+    public void bytesShouldRoundTrip() {
+        EpochDaySet[] sets = {
+                EpochDaySet.EMPTY,
+                EpochDaySet.of(new int[]{0}),
+                EpochDaySet.of(new int[]{-1}),
+                EpochDaySet.ofRanges(new int[]{-719162, -5, 17532}, new int[]{-719100, 3, 2932896}),
+                EpochDaySet.ofRanges(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE},
+                        new int[]{Integer.MIN_VALUE + 2, Integer.MAX_VALUE}),
+        };
+        for (EpochDaySet set : sets) {
+            EpochDaySet copy = EpochDaySet.fromByteArray(set.toByteArray());
+            assertEquals(set.first(), copy.first());
+            assertEquals(set.last(), copy.last());
+            assertArrayEquals(set.toByteArray(), copy.toByteArray());
+        }
+    }
+
+    @Test
+    public void bytesShouldKeepEveryDayOfManyRuns() {
+        int[] days = new int[200];
+        for (int i = 0; i < days.length; i++) days[i] = -5000 + i * i;
+        EpochDaySet set = EpochDaySet.of(days);
+
+        assertArrayEquals(set.toArray(), EpochDaySet.fromByteArray(set.toByteArray()).toArray());
+    }
+
+    @Test
+    public void smallRunsAndGapsShouldTakeOneBytePerValue() {
+        // Zigzag keeps the negative first day to one byte
+        EpochDaySet set = EpochDaySet.ofRanges(new int[]{-10, 0}, new int[]{-8, 5});
+
+        // Run count, first day, length, gap, length
+        assertEquals(5, set.toByteArray().length);
+        assertEquals(1, EpochDaySet.EMPTY.toByteArray().length);
+    }
+
+    @Test
+    public void longRunsShouldBeCountedWithoutOverflow() {
+        EpochDaySet set = EpochDaySet.ofRanges(new int[]{Integer.MIN_VALUE, 0}, new int[]{-1, Integer.MAX_VALUE});
+
+        assertEquals(1L << 32, set.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void tooManyDaysShouldNotBeExpanded() {
+        EpochDaySet.ofRanges(new int[]{0}, new int[]{EpochDaySet.MAX_EXPANDED_DAYS}).toArray();
+    }
+
+    @Test
+    public void calendarRangesShouldBeTheRunsWithoutExpandingThem() {
+        final TimeZone timeZone = TimeZone.getTimeZone("UTC");
+        EpochDaySet set = EpochDaySet.ofRanges(new int[]{-10, 0, 3}, new int[]{-5, 2, 9000000});
+
+        Calendar[][] ranges = set.toCalendarRanges(timeZone);
+        assertEquals(2, ranges[0].length);
+        assertEquals(-10, EpochDay.of(ranges[0][0]));
+        assertEquals(-5, EpochDay.of(ranges[1][0]));
+        assertEquals(0, EpochDay.of(ranges[0][1]));
+        assertEquals(9000000, EpochDay.of(ranges[1][1]));
+    }
+
+    @Test
+    public void maskShouldHoldTheDaysOfTheWindow() {
+        EpochDaySet set = EpochDaySet.ofRanges(new int[]{-5, 3, 30}, new int[]{1, 4, 40});
+
+        // Days 0 to 31: 0, 1, 3, 4 and 30, 31
+        assertEquals(0b11 | 0b11 << 3 | 0b11 << 30, set.mask(0, 32));
+        assertEquals(0b11 << 3, set.mask(0, 28) & ~0b11);
+        assertEquals(0, set.mask(10, 20));
+    }
+
+    private static int[] range(int first, int last) {
+        int[] days = new int[last - first + 1];
+        for (int i = 0; i < days.length; i++) days[i] = first + i;
+        return days;
+    }
+}
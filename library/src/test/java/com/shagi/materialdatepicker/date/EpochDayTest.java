@@ -0,0 +1,109 @@
+package com.shagi.materialdatepicker.date;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the epoch day arithmetic, checked against a proleptic Gregorian calendar
+ */
+public class EpochDayTest {
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static GregorianCalendar prolepticCalendar() {
+        GregorianCalendar calendar = new GregorianCalendar(UTC);
+        calendar.setGregorianChange(new Date(Long.MIN_VALUE));
+        calendar.clear();
+        return calendar;
+    }
+
+    @Test
+    public void epochShouldBeDayZero() {
+        assertEquals(0, EpochDay.of(1970, Calendar.JANUARY, 1));
+        assertEquals(Calendar.THURSDAY, EpochDay.dayOfWeek(0));
+    }
+
+    @Test
+    public void daysBeforeTheEpochShouldBeNegative() {
+        assertEquals(-1, EpochDay.of(1969, Calendar.DECEMBER, 31));
+        assertEquals(1969, EpochDay.year(-1));
+        assertEquals(Calendar.DECEMBER, EpochDay.month(-1));
+        assertEquals(31, EpochDay.dayOfMonth(-1));
+        assertEquals(Calendar.WEDNESDAY, EpochDay.dayOfWeek(-1));
+        assertEquals(Calendar.THURSDAY, EpochDay.dayOfWeek(-7));
+    }
+
+    @Test
+    public void centuryYearsShouldOnlyLeapEveryFourHundredYears() {
+        assertEquals(29, EpochDay.daysInMonth(1600, Calendar.FEBRUARY));
+        assertEquals(28, EpochDay.daysInMonth(1700, Calendar.FEBRUARY));
+        assertEquals(28, EpochDay.daysInMonth(1900, Calendar.FEBRUARY));
+        assertEquals(29, EpochDay.daysInMonth(2000, Calendar.FEBRUARY));
+        assertEquals(28, EpochDay.daysInMonth(2100, Calendar.FEBRUARY));
+        assertEquals(29, EpochDay.daysInMonth(2024, Calendar.FEBRUARY));
+
+        int leapDay = EpochDay.of(2000, Calendar.FEBRUARY, 29);
+        assertEquals(Calendar.FEBRUARY, EpochDay.month(leapDay));
+        assertEquals(29, EpochDay.dayOfMonth(leapDay));
+        assertEquals(EpochDay.of(1900, Calendar.MARCH, 1), EpochDay.of(1900, Calendar.FEBRUARY, 29));
+    }
+
+    @Test
+    public void monthsOutOfRangeShouldRollOver() {
+        assertEquals(EpochDay.of(2019, Calendar.JANUARY, 1), EpochDay.of(2018, 12, 1));
+        assertEquals(EpochDay.of(2017, Calendar.DECEMBER, 1), EpochDay.of(2018, -1, 1));
+        assertEquals(EpochDay.of(2016, Calendar.NOVEMBER, 1), EpochDay.of(2018, -14, 1));
+    }
+
+    @Test
+    public void fieldsShouldMatchProlepticCalendar() {
+        GregorianCalendar calendar = prolepticCalendar();
+        calendar.set(1, Calendar.JANUARY, 1);
+        final int firstDay = EpochDay.of(1, Calendar.JANUARY, 1);
+        final int lastDay = EpochDay.of(9999, Calendar.DECEMBER, 31);
+        for (int day = firstDay; day <= lastDay; day++) {
+            assertEquals("day " + day, day,
+                    EpochDay.of(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH),
+                            calendar.get(Calendar.DAY_OF_MONTH)));
+            assertEquals("year " + day, calendar.get(Calendar.YEAR), EpochDay.year(day));
+            assertEquals("month " + day, calendar.get(Calendar.MONTH), EpochDay.month(day));
+            assertEquals("dayOfMonth " + day, calendar.get(Calendar.DAY_OF_MONTH), EpochDay.dayOfMonth(day));
+            assertEquals("dayOfWeek " + day, calendar.get(Calendar.DAY_OF_WEEK), EpochDay.dayOfWeek(day));
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    @Test
+    public void instantsShouldUseTheOffsetOfTheTimeZone() {
+        assertEquals(-1, EpochDay.of(-1L, UTC));
+        assertEquals(0, EpochDay.of(0L, UTC));
+        // 1970-01-01T20:00Z is already the next day at UTC+5
+        assertEquals(1, EpochDay.of(20 * 60 * 60 * 1000L, TimeZone.getTimeZone("GMT+05:00")));
+        // 1970-01-01T02:00Z is still the previous day at UTC-5
+        assertEquals(-1, EpochDay.of(2 * 60 * 60 * 1000L, TimeZone.getTimeZone("GMT-05:00")));
+    }
+
+    @Test
+    public void toCalendarShouldRoundTrip() {
+        TimeZone zone = TimeZone.getTimeZone("America/New_York");
+        for (int day : new int[]{-719162, -25567, -1, 0, 1, 17532, 2932896}) {
+            assertEquals(day, EpochDay.of(EpochDay.toCalendar(day, zone)));
+        }
+    }
+
+    @Test
+    public void floorDivisionShouldRoundTowardsNegativeInfinity() {
+        assertEquals(-1, EpochDay.floorDiv(-1, 7));
+        assertEquals(-2, EpochDay.floorDiv(-8, 7));
+        assertEquals(-1, EpochDay.floorDiv(-7, 7));
+        assertEquals(1, EpochDay.floorDiv(7, 7));
+        assertEquals(6, EpochDay.floorMod(-1, 7));
+        assertEquals(0, EpochDay.floorMod(-7, 7));
+        assertEquals(3, EpochDay.floorMod(10, 7));
+    }
+}
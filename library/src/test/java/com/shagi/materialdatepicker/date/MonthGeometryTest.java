@@ -0,0 +1,87 @@
+package com.shagi.materialdatepicker.date;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the day cells of MonthGeometry, shared by drawing and hit testing
+ */
+public class MonthGeometryTest {
+    private static final int WIDTH = 720;
+    private static final int ROW_HEIGHT = 80;
+    private static final int EDGE_PADDING = 10;
+    private static final int HEADER_SIZE = 100;
+
+    private static MonthGeometry get(int year, int month, int weekStart) {
+        return MonthGeometry.get(year, month, weekStart, WIDTH, ROW_HEIGHT, EDGE_PADDING, HEADER_SIZE);
+    }
+
+    @Test
+    public void firstDayShouldBeInTheColumnOfItsDayOfWeek() {
+        // March 1st 2018 was a Thursday
+        assertEquals(4, get(2018, Calendar.MARCH, Calendar.SUNDAY).dayOffset);
+        assertEquals(3, get(2018, Calendar.MARCH, Calendar.MONDAY).dayOffset);
+        assertEquals(0, get(2018, Calendar.MARCH, Calendar.THURSDAY).dayOffset);
+        assertEquals(6, get(2018, Calendar.MARCH, Calendar.FRIDAY).dayOffset);
+    }
+
+    @Test
+    public void daysShouldWrapIntoTheNextRowAfterTheLastColumn() {
+        MonthGeometry geometry = get(2018, Calendar.MARCH, Calendar.SUNDAY);
+
+        // Thursday to Saturday in the first row, Sunday the 4th starts the second
+        assertEquals(HEADER_SIZE, geometry.getTop(3));
+        assertEquals(HEADER_SIZE + ROW_HEIGHT, geometry.getTop(4));
+        assertTrue(geometry.getCenterX(4) < geometry.getCenterX(1));
+        assertEquals(geometry.getCenterX(4), geometry.getCenterX(11));
+    }
+
+    @Test
+    public void cellsShouldStayWithinThePaddingAndNotOverlap() {
+        MonthGeometry geometry = get(2018, Calendar.MARCH, Calendar.SUNDAY);
+
+        for (int day = 1; day <= geometry.daysInMonth; day++) {
+            assertTrue(geometry.getLeft(day) >= EDGE_PADDING);
+            assertTrue(geometry.getRight(day) <= WIDTH - EDGE_PADDING);
+            assertTrue(geometry.getLeft(day) < geometry.getCenterX(day));
+            assertTrue(geometry.getCenterX(day) < geometry.getRight(day));
+            if (day > 1 && geometry.getTop(day) == geometry.getTop(day - 1)) {
+                assertTrue(geometry.getLeft(day) >= geometry.getRight(day - 1) - 1);
+            }
+        }
+    }
+
+    @Test
+    public void hitTestingShouldFindTheDayOfEveryCell() {
+        for (int weekStart = Calendar.SUNDAY; weekStart <= Calendar.SATURDAY; weekStart++) {
+            MonthGeometry geometry = get(2016, Calendar.FEBRUARY, weekStart);
+            for (int day = 1; day <= geometry.daysInMonth; day++) {
+                final float y = geometry.getTop(day) + ROW_HEIGHT / 2f;
+                assertEquals(day, geometry.getDayFromLocation(geometry.getCenterX(day), y));
+                assertEquals(day, geometry.getDayFromLocation(geometry.getLeft(day) + 1, y));
+                assertEquals(day, geometry.getDayFromLocation(geometry.getRight(day) - 1, y));
+            }
+        }
+    }
+
+    @Test
+    public void positionsOutsideOfTheDaysShouldNotHitADay() {
+        MonthGeometry geometry = get(2018, Calendar.MARCH, Calendar.SUNDAY);
+        final float firstRow = HEADER_SIZE + ROW_HEIGHT / 2f;
+
+        assertEquals(-1, geometry.getDayFromLocation(EDGE_PADDING - 1, firstRow));
+        assertEquals(-1, geometry.getDayFromLocation(WIDTH - EDGE_PADDING + 1, firstRow));
+        // Empty cell before the first day
+        assertTrue(geometry.getDayFromLocation(EDGE_PADDING + 1, firstRow) < 1);
+    }
+
+    @Test
+    public void monthsLaidOutAlikeShouldShareTheirGeometry() {
+        // Both start on a Thursday and have 31 days
+        assertSame(get(2018, Calendar.MARCH, Calendar.SUNDAY), get(2019, Calendar.AUGUST, Calendar.SUNDAY));
+        assertNotSame(get(2018, Calendar.MARCH, Calendar.SUNDAY), get(2018, Calendar.MARCH, Calendar.MONDAY));
+    }
+}
@@ -0,0 +1,132 @@
+package com.shagi.materialdatepicker.date;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the MonthPrefetcher, with an executor which only runs the queued work when told
+ */
+public class MonthPrefetcherTest {
+    private final List<Runnable> queue = new ArrayList<>();
+    private final Executor queued = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            queue.add(command);
+        }
+    };
+
+    private DefaultDateRangeLimiter limiter;
+
+    private static Calendar date(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day);
+        return calendar;
+    }
+
+    private void runQueued() {
+        for (Runnable runnable : queue) runnable.run();
+        queue.clear();
+    }
+
+    @Before
+    public void setUp() {
+        limiter = new DefaultDateRangeLimiter();
+        limiter.setDisabledRules(new DateRule[]{DateRule.daysOfWeek(Calendar.SATURDAY, Calendar.SUNDAY)});
+    }
+
+    @Test
+    public void monthsAroundShouldBeScheduledOnce() {
+        MonthPrefetcher prefetcher = new MonthPrefetcher(limiter, 2, queued);
+
+        prefetcher.prefetchAround(2020, Calendar.MARCH);
+        assertEquals(5, queue.size());
+        // Only July is new when moving to the next month
+        prefetcher.prefetchAround(2020, Calendar.APRIL);
+        assertEquals(6, queue.size());
+    }
+
+    @Test
+    public void prefetchedMonthsShouldBeHits() {
+        MonthPrefetcher prefetcher = new MonthPrefetcher(limiter, 2, queued);
+        prefetcher.prefetchAround(2020, Calendar.JANUARY);
+        runQueued();
+
+        for (int month = Calendar.NOVEMBER; month <= Calendar.DECEMBER; month++) {
+            assertEquals(limiter.getOutOfRangeMask(2019, month), prefetcher.getOutOfRangeMask(2019, month));
+        }
+        for (int month = Calendar.JANUARY; month <= Calendar.MARCH; month++) {
+            assertEquals(limiter.getOutOfRangeMask(2020, month), prefetcher.getOutOfRangeMask(2020, month));
+        }
+        assertEquals(5, prefetcher.getHitCount());
+        assertEquals(0, prefetcher.getMissCount());
+    }
+
+    @Test
+    public void monthNotPrefetchedShouldBeAMissComputedOnce() {
+        MonthPrefetcher prefetcher = new MonthPrefetcher(limiter, 1, queued);
+
+        assertEquals(limiter.getOutOfRangeMask(2020, Calendar.JUNE),
+                prefetcher.getOutOfRangeMask(2020, Calendar.JUNE));
+        prefetcher.getOutOfRangeMask(2020, Calendar.JUNE);
+        assertEquals(1, prefetcher.getMissCount());
+        assertEquals(1, prefetcher.getHitCount());
+        // Computed while drawing, so not scheduled again
+        prefetcher.prefetchAround(2020, Calendar.JUNE);
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void monthsSharingASlotShouldReplaceEachOther() {
+        // Two months on each side take 5 months, rounded up to 16 slots
+        MonthPrefetcher prefetcher = new MonthPrefetcher(limiter, 2, queued);
+        prefetcher.prefetchAround(2020, Calendar.JANUARY);
+        runQueued();
+
+        prefetcher.getOutOfRangeMask(2021, Calendar.MAY);
+        assertEquals(1, prefetcher.getMissCount());
+        prefetcher.getOutOfRangeMask(2020, Calendar.JANUARY);
+        assertEquals(2, prefetcher.getMissCount());
+        prefetcher.getOutOfRangeMask(2020, Calendar.FEBRUARY);
+        assertEquals(1, prefetcher.getHitCount());
+    }
+
+    @Test
+    public void resultsFinishedAfterInvalidateShouldBeDropped() {
+        MonthPrefetcher prefetcher = new MonthPrefetcher(limiter, 1, queued);
+        prefetcher.prefetchAround(2020, Calendar.JANUARY);
+
+        prefetcher.invalidate();
+        runQueued();
+        prefetcher.getOutOfRangeMask(2020, Calendar.JANUARY);
+        assertEquals(1, prefetcher.getMissCount());
+        assertEquals(0, prefetcher.getHitCount());
+        // Scheduled again after the invalidation
+        prefetcher.prefetchAround(2020, Calendar.JANUARY);
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void monthsOutsideOfTheRangeShouldNotBeScheduled() {
+        limiter.setMinDate(date(2020, Calendar.JANUARY, 15));
+        limiter.setMaxDate(date(2020, Calendar.FEBRUARY, 10));
+        MonthPrefetcher prefetcher = new MonthPrefetcher(limiter, 3, queued);
+
+        prefetcher.prefetchAround(2020, Calendar.JANUARY);
+        assertEquals(2, queue.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noMonthToPrefetchShouldBeRejected() {
+        new MonthPrefetcher(limiter, 0, queued);
+    }
+}
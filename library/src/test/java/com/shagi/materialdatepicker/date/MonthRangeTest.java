@@ -0,0 +1,156 @@
+package com.shagi.materialdatepicker.date;
+
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the month positions of the MonthRange and the changes it reports
+ */
+public class MonthRangeTest {
+    private static final int MARCH_2018 = 2018 * 12 + Calendar.MARCH;
+
+    private final List<String> changes = new ArrayList<>();
+    private final RecyclerView.AdapterDataObserver observer = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            changes.add("all");
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            changes.add("changed " + positionStart + " " + itemCount + (payload != null ? " " + payload : ""));
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            changes.add("inserted " + positionStart + " " + itemCount);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            changes.add("removed " + positionStart + " " + itemCount);
+        }
+    };
+
+    private MonthRange range;
+
+    @Before
+    public void setUp() {
+        range = new MonthRange();
+        range.update(MARCH_2018, MARCH_2018 + 23, observer);
+        changes.clear();
+    }
+
+    @Test
+    public void positionsShouldMapToMonthsBothWays() {
+        assertEquals(24, range.getCount());
+        assertEquals(2018, range.getYear(0));
+        assertEquals(Calendar.MARCH, range.getMonth(0));
+        assertEquals(2019, range.getYear(10));
+        assertEquals(Calendar.JANUARY, range.getMonth(10));
+        for (int position = 0; position < range.getCount(); position++) {
+            assertEquals(position, range.getPosition(range.getYear(position), range.getMonth(position)));
+        }
+    }
+
+    @Test
+    public void monthsOutsideOfTheRangeShouldBeOutsideOfThePositions() {
+        assertEquals(-1, range.getPosition(2018, Calendar.FEBRUARY));
+        assertEquals(range.getCount(), range.getPosition(2020, Calendar.MARCH));
+    }
+
+    @Test
+    public void firstRangeShouldBeReportedInFull() {
+        MonthRange first = new MonthRange();
+
+        first.update(MARCH_2018, MARCH_2018, observer);
+        assertEquals(1, first.getCount());
+        assertEquals(MARCH_2018, first.getStartMonthIndex());
+        assertEquals("[all]", changes.toString());
+    }
+
+    @Test
+    public void selectionChangeShouldOnlyReportItsMonthWithThePayload() {
+        range.notifyChanged(MARCH_2018 + 4, MARCH_2018 + 4, "selection", observer);
+
+        assertEquals("[changed 4 1 selection]", changes.toString());
+    }
+
+    @Test
+    public void selectionOutsideOfTheRangeShouldNotBeReported() {
+        range.notifyChanged(MARCH_2018 - 1, MARCH_2018 - 1, "selection", observer);
+        range.notifyChanged(MARCH_2018 + 24, MARCH_2018 + 24, "selection", observer);
+
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void earlierStartShouldInsertMonthsAtTheTop() {
+        range.update(MARCH_2018 - 3, MARCH_2018 + 23, observer);
+
+        assertEquals("[inserted 0 3]", changes.toString());
+        assertEquals(27, range.getCount());
+        assertEquals(3, range.getPosition(2018, Calendar.MARCH));
+    }
+
+    @Test
+    public void laterStartShouldRemoveMonthsAtTheTop() {
+        range.update(MARCH_2018 + 2, MARCH_2018 + 23, observer);
+
+        assertEquals("[removed 0 2]", changes.toString());
+    }
+
+    @Test
+    public void movedEndShouldInsertOrRemoveMonthsAtTheBottom() {
+        range.update(MARCH_2018, MARCH_2018 + 25, observer);
+        range.update(MARCH_2018, MARCH_2018 + 20, observer);
+
+        assertEquals("[inserted 24 2, removed 21 5]", changes.toString());
+    }
+
+    @Test
+    public void bothEndsShouldBeReportedInPositionsOfTheNewRange() {
+        range.update(MARCH_2018 + 1, MARCH_2018 + 30, observer);
+
+        // Removing the first month moves the old end from position 23 to 22
+        assertEquals("[removed 0 1, inserted 23 7]", changes.toString());
+    }
+
+    @Test
+    public void sameRangeShouldReportNothing() {
+        range.update(MARCH_2018, MARCH_2018 + 23, observer);
+
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void rangeWithoutCommonMonthsShouldBeReportedInFull() {
+        range.update(MARCH_2018 + 24, MARCH_2018 + 30, observer);
+
+        assertEquals("[all]", changes.toString());
+    }
+
+    @Test
+    public void changedMonthsShouldBeClampedToTheRange() {
+        range.notifyChanged(MARCH_2018 - 5, MARCH_2018 + 1, null, observer);
+        range.notifyChanged(MARCH_2018 + 20, MARCH_2018 + 40, null, observer);
+
+        assertEquals("[changed 0 2, changed 20 4]", changes.toString());
+    }
+
+    @Test
+    public void unboundedChangeShouldCoverEveryMonth() {
+        range.notifyChanged(Integer.MIN_VALUE, Integer.MAX_VALUE, null, observer);
+        range.notifyChanged(MARCH_2018 + 10, Integer.MAX_VALUE, null, observer);
+
+        assertEquals("[changed 0 24, changed 10 14]", changes.toString());
+    }
+}
@@ -0,0 +1,104 @@
+package com.shagi.materialdatepicker.date;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the reuse policy of rendered month bitmaps, with plain objects standing for the
+ * month views
+ */
+public class MonthRenderSlotsTest {
+    private final Object first = new Object();
+    private final Object second = new Object();
+
+    @Test
+    public void slotShownByOneViewShouldNotBeGivenToAnother() {
+        MonthRenderSlots slots = new MonthRenderSlots(1);
+
+        assertEquals(0, slots.acquire(first, 100));
+        // The only bitmap still shows the first view's month, the second view draws directly
+        assertEquals(MonthRenderSlots.NONE, slots.acquire(second, 101));
+        // And keeps doing so on every frame without taking the bitmap over
+        assertEquals(MonthRenderSlots.NONE, slots.acquire(second, 101));
+        assertEquals(0, slots.acquire(first, 100));
+    }
+
+    @Test
+    public void sameMonthShownByAnotherViewShouldBeDrawnDirectly() {
+        MonthRenderSlots slots = new MonthRenderSlots(2);
+
+        assertEquals(0, slots.acquire(first, 100));
+        assertEquals(MonthRenderSlots.NONE, slots.acquire(second, 100));
+    }
+
+    @Test
+    public void releasedSlotShouldBeReusedByTheNextView() {
+        MonthRenderSlots slots = new MonthRenderSlots(1);
+        slots.acquire(first, 100);
+
+        slots.release(first);
+        assertEquals(0, slots.acquire(second, 101));
+        assertEquals(MonthRenderSlots.NONE, slots.acquire(first, 100));
+    }
+
+    @Test
+    public void viewShouldReuseItsOwnSlotForItsNextMonth() {
+        MonthRenderSlots slots = new MonthRenderSlots(1);
+        slots.acquire(first, 100);
+
+        // Drawing another month replaces what the view showed, so its bitmap is free again
+        assertEquals(0, slots.acquire(first, 101));
+        assertEquals(MonthRenderSlots.NONE, slots.acquire(second, 100));
+    }
+
+    @Test
+    public void releasedMonthShouldBeFoundAgain() {
+        MonthRenderSlots slots = new MonthRenderSlots(3);
+        int slot = slots.acquire(first, 100);
+        slots.release(first);
+        slots.acquire(second, 101);
+        slots.release(second);
+
+        assertEquals(slot, slots.acquire(first, 100));
+    }
+
+    @Test
+    public void emptySlotsShouldBeUsedBeforeEvictingAMonth() {
+        MonthRenderSlots slots = new MonthRenderSlots(2);
+        int slot = slots.acquire(first, 100);
+        slots.release(first);
+
+        int other = slots.acquire(second, 101);
+        assertNotEquals(slot, other);
+        slots.release(second);
+        assertEquals(slot, slots.acquire(first, 100));
+    }
+
+    @Test
+    public void leastRecentlyUsedFreeSlotShouldBeEvicted() {
+        MonthRenderSlots slots = new MonthRenderSlots(2);
+        int older = slots.acquire(first, 100);
+        slots.acquire(first, 101);
+        slots.release(first);
+        // Month 100 was drawn before month 101, so it makes room for month 102
+        assertEquals(older, slots.acquire(second, 102));
+    }
+
+    @Test
+    public void clearShouldFreeEverySlot() {
+        MonthRenderSlots slots = new MonthRenderSlots(1);
+        slots.acquire(first, 100);
+
+        slots.clear();
+        assertEquals(0, slots.acquire(second, 100));
+    }
+
+    @Test
+    public void noSlotShouldDrawEveryMonthDirectly() {
+        MonthRenderSlots slots = new MonthRenderSlots(0);
+
+        assertEquals(0, slots.getCapacity());
+        assertEquals(MonthRenderSlots.NONE, slots.acquire(first, 100));
+    }
+}
@@ -0,0 +1,214 @@
+package com.shagi.materialdatepicker.date;
+
+import android.os.Parcel;
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the whole-month queries of DateRangeLimiter and DatePickerController and their
+ * per-day fallbacks
+ */
+public class MonthStateTest {
+
+    private static Calendar date(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day);
+        return calendar;
+    }
+
+    /**
+     * Only answers the per-day query, so every month query takes the default fallback
+     */
+    private static class PerDayLimiter implements DateRangeLimiter {
+        private final DateRangeLimiter mLimiter;
+
+        PerDayLimiter(DateRangeLimiter limiter) {
+            mLimiter = limiter;
+        }
+
+        @Override
+        public int getMinYear() {
+            return mLimiter.getMinYear();
+        }
+
+        @Override
+        public int getMaxYear() {
+            return mLimiter.getMaxYear();
+        }
+
+        @Override
+        public Calendar getStartDate() {
+            return mLimiter.getStartDate();
+        }
+
+        @Override
+        public Calendar getEndDate() {
+            return mLimiter.getEndDate();
+        }
+
+        @Override
+        public boolean isOutOfRange(int year, int month, int day) {
+            return mLimiter.isOutOfRange(year, month, day);
+        }
+
+        @NonNull
+        @Override
+        public Calendar setToNearestDate(@NonNull Calendar day) {
+            return mLimiter.setToNearestDate(day);
+        }
+
+        @Override
+        public int describeContents() {
+            return 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+        }
+    }
+
+    /**
+     * Disables every third day and highlights every fifth one, only through the per-day queries
+     */
+    private static class PerDayController implements DatePickerController {
+        @Override
+        public boolean isOutOfRange(int year, int month, int day) {
+            return day % 3 == 0;
+        }
+
+        @Override
+        public boolean isHighlighted(int year, int month, int day) {
+            return day % 5 == 0;
+        }
+
+        @Override
+        public TimeZone getTimeZone() {
+            return TimeZone.getTimeZone("UTC");
+        }
+
+        @Override
+        public void onYearSelected(int year) {
+        }
+
+        @Override
+        public void onDayOfMonthSelected(int year, int month, int day) {
+        }
+
+        @Override
+        public void registerOnDateChangedListener(DatePickerFragmentDialog.OnDateChangedListener listener) {
+        }
+
+        @Override
+        public void unregisterOnDateChangedListener(DatePickerFragmentDialog.OnDateChangedListener listener) {
+        }
+
+        @Override
+        public MonthAdapter.CalendarDay getSelectedDay() {
+            return new MonthAdapter.CalendarDay(2018, Calendar.MARCH, 1);
+        }
+
+        @Override
+        public boolean isThemeDark() {
+            return false;
+        }
+
+        @Override
+        public int getAccentColor() {
+            return 0;
+        }
+
+        @Override
+        public int getFirstDayOfWeek() {
+            return Calendar.MONDAY;
+        }
+
+        @Override
+        public int getMinYear() {
+            return 1900;
+        }
+
+        @Override
+        public int getMaxYear() {
+            return 2100;
+        }
+
+        @Override
+        public Calendar getStartDate() {
+            return date(1900, Calendar.JANUARY, 1);
+        }
+
+        @Override
+        public Calendar getEndDate() {
+            return date(2100, Calendar.DECEMBER, 31);
+        }
+    }
+
+    @Test
+    public void defaultMonthStateShouldCombineThePerDayQueries() {
+        final int[] states = new int[31];
+        Arrays.fill(states, -1);
+
+        new PerDayController().getMonthState(2018, Calendar.FEBRUARY, states);
+        assertEquals(0, states[0]);
+        assertEquals(DatePickerController.DAY_STATE_OUT_OF_RANGE, states[2]);
+        assertEquals(DatePickerController.DAY_STATE_HIGHLIGHTED, states[4]);
+        assertEquals(DatePickerController.DAY_STATE_OUT_OF_RANGE | DatePickerController.DAY_STATE_HIGHLIGHTED,
+                states[14]);
+        // February 2018 has 28 days, the rest is left alone
+        assertEquals(-1, states[28]);
+        assertEquals(-1, states[30]);
+    }
+
+    @Test
+    public void defaultMaskShouldMatchThePerDayQuery() {
+        DefaultDateRangeLimiter limiter = new DefaultDateRangeLimiter();
+        limiter.setMinDate(date(2018, Calendar.MARCH, 10));
+        limiter.setDisabledDays(new Calendar[]{date(2018, Calendar.MARCH, 12), date(2018, Calendar.MARCH, 31)});
+        DateRangeLimiter perDay = new PerDayLimiter(limiter);
+
+        final int mask = perDay.getOutOfRangeMask(2018, Calendar.MARCH);
+        for (int day = 1; day <= 31; day++) {
+            assertEquals("day " + day, limiter.isOutOfRange(2018, Calendar.MARCH, day), (mask & 1 << (day - 1)) != 0);
+        }
+        assertEquals(0, perDay.getPendingMask(2018, Calendar.MARCH));
+    }
+
+    @Test
+    public void defaultLimiterMasksShouldMatchThePerDayFallback() {
+        DefaultDateRangeLimiter limiter = new DefaultDateRangeLimiter();
+        limiter.setMinDate(date(2017, Calendar.NOVEMBER, 20));
+        limiter.setMaxDate(date(2019, Calendar.FEBRUARY, 3));
+        limiter.setDisabledRanges(new Calendar[]{date(2018, Calendar.APRIL, 28)},
+                new Calendar[]{date(2018, Calendar.JUNE, 2)});
+        limiter.setDisabledRules(new DateRule[]{DateRule.daysOfWeek(Calendar.SUNDAY)});
+        DateRangeLimiter perDay = new PerDayLimiter(limiter);
+
+        for (int monthIndex = 2017 * 12; monthIndex < 2020 * 12; monthIndex++) {
+            final int year = monthIndex / 12;
+            final int month = monthIndex % 12;
+            assertEquals(year + "-" + month, perDay.getOutOfRangeMask(year, month),
+                    limiter.getOutOfRangeMask(year, month));
+        }
+    }
+
+    @Test
+    public void defaultMonthIndicesShouldComeFromTheStartAndEndDates() {
+        DefaultDateRangeLimiter limiter = new DefaultDateRangeLimiter();
+        limiter.setMinDate(date(2017, Calendar.NOVEMBER, 20));
+        limiter.setMaxDate(date(2019, Calendar.FEBRUARY, 3));
+        DateRangeLimiter perDay = new PerDayLimiter(limiter);
+
+        assertEquals(2017 * 12 + Calendar.NOVEMBER, perDay.getStartMonthIndex());
+        assertEquals(2019 * 12 + Calendar.FEBRUARY, perDay.getEndMonthIndex());
+        assertEquals(limiter.isOutOfRange(2017, Calendar.NOVEMBER, 19),
+                perDay.isOutOfRange(EpochDay.of(2017, Calendar.NOVEMBER, 19)));
+    }
+}
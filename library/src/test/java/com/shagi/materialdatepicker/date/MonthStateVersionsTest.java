@@ -0,0 +1,113 @@
+package com.shagi.materialdatepicker.date;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the per-month state versions month views compare to skip binding again
+ */
+public class MonthStateVersionsTest {
+    private static final int MARCH_2018 = 2018 * 12 + Calendar.MARCH;
+
+    private MonthStateVersions versions;
+
+    @Before
+    public void setUp() {
+        versions = new MonthStateVersions();
+    }
+
+    @Test
+    public void changeShouldOnlyAffectItsMonths() {
+        final int before = versions.get(MARCH_2018);
+        final int other = versions.get(MARCH_2018 + 2);
+
+        versions.changed(MARCH_2018, MARCH_2018 + 1);
+        assertNotEquals(before, versions.get(MARCH_2018));
+        assertNotEquals(before, versions.get(MARCH_2018 + 1));
+        assertEquals(other, versions.get(MARCH_2018 + 2));
+        assertEquals(other, versions.get(MARCH_2018 - 1));
+    }
+
+    @Test
+    public void everyChangeOfAMonthShouldGiveItANewVersion() {
+        versions.changed(MARCH_2018, MARCH_2018);
+        final int first = versions.get(MARCH_2018);
+
+        versions.changed(MARCH_2018 - 5, MARCH_2018 + 5);
+        assertNotEquals(first, versions.get(MARCH_2018));
+    }
+
+    @Test
+    public void changeOfEveryMonthShouldAffectAllOfThem() {
+        versions.changed(MARCH_2018, MARCH_2018);
+        final int changed = versions.get(MARCH_2018);
+        final int unchanged = versions.get(0);
+
+        versions.changedAll();
+        assertNotEquals(changed, versions.get(MARCH_2018));
+        assertNotEquals(unchanged, versions.get(0));
+    }
+
+    @Test
+    public void monthsLoadedOneByOneShouldKeepTheirVersions() {
+        final int[] seen = new int[60];
+        for (int i = 0; i < seen.length; i++) {
+            versions.changed(MARCH_2018 + i, MARCH_2018 + i);
+            seen[i] = versions.get(MARCH_2018 + i);
+        }
+        // Each change only affected its own month
+        for (int i = 0; i < seen.length; i++) {
+            assertEquals("month " + i, seen[i], versions.get(MARCH_2018 + i));
+        }
+    }
+
+    @Test
+    public void wideChangeShouldKeepTheVersionsOfChangedMonthsOutsideOfIt() {
+        versions.changed(MARCH_2018, MARCH_2018);
+        versions.changed(MARCH_2018 + 200, MARCH_2018 + 200);
+        final int march = versions.get(MARCH_2018);
+        final int inside = versions.get(MARCH_2018 + 200);
+
+        versions.changed(MARCH_2018 + 100, MARCH_2018 + 300);
+        assertEquals(march, versions.get(MARCH_2018));
+        assertNotEquals(inside, versions.get(MARCH_2018 + 200));
+        assertNotEquals(inside, versions.get(MARCH_2018 + 150));
+    }
+
+    @Test
+    public void dayRangeShouldCoverTheMonthsOfItsDays() {
+        final int march = versions.get(MARCH_2018);
+        final int april = versions.get(MARCH_2018 + 1);
+        final int january = versions.get(MARCH_2018 - 2);
+
+        versions.changedDays(EpochDay.of(2018, Calendar.FEBRUARY, 28), EpochDay.of(2018, Calendar.MARCH, 1));
+        assertNotEquals(march, versions.get(MARCH_2018));
+        assertNotEquals(march, versions.get(MARCH_2018 - 1));
+        assertEquals(april, versions.get(MARCH_2018 + 1));
+        assertEquals(january, versions.get(MARCH_2018 - 2));
+    }
+
+    @Test
+    public void unboundedDayRangeShouldCoverEveryMonthOnItsSide() {
+        versions.changed(MARCH_2018 - 1, MARCH_2018 - 1);
+        final int before = versions.get(MARCH_2018 - 1);
+
+        versions.changedDays(EpochDay.of(2018, Calendar.MARCH, 10), Integer.MAX_VALUE);
+        assertNotEquals(before, versions.get(MARCH_2018));
+        assertNotEquals(before, versions.get(3000 * 12));
+        // Changed before on its own, and outside of the range
+        assertEquals(before, versions.get(MARCH_2018 - 1));
+    }
+
+    @Test
+    public void versionsShouldStayNonNegative() {
+        for (int i = 0; i < 100; i++) {
+            versions.changed(i, i);
+            assertTrue(versions.get(i) >= 0);
+        }
+    }
+}
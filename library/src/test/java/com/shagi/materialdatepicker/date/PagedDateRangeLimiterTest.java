@@ -0,0 +1,188 @@
+package com.shagi.materialdatepicker.date;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the PagedDateRangeLimiter, backed by an in-memory availability source
+ */
+public class PagedDateRangeLimiterTest {
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
+        }
+    };
+
+    private FakeSource source;
+    private List<Integer> loadedMonths;
+    private PagedDateRangeLimiter limiter;
+
+    /**
+     * Records every request and answers only when told to, like a slow backend would
+     */
+    private static class FakeSource implements PagedDateRangeLimiter.AvailabilitySource {
+        final List<int[]> requests = new ArrayList<>();
+        final List<PagedDateRangeLimiter.Callback> callbacks = new ArrayList<>();
+
+        @Override
+        public void loadMonth(int year, int month, @NonNull PagedDateRangeLimiter.Callback callback) {
+            requests.add(new int[]{year, month});
+            callbacks.add(callback);
+        }
+
+        void answer(int request, int availableDays) {
+            int[] month = requests.get(request);
+            callbacks.get(request).onMonthLoaded(month[0], month[1], availableDays);
+        }
+    }
+
+    private static Calendar date(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day);
+        return calendar;
+    }
+
+    @Before
+    public void setUp() {
+        source = new FakeSource();
+        loadedMonths = new ArrayList<>();
+        limiter = new PagedDateRangeLimiter(date(2018, Calendar.JANUARY, 10),
+                date(2019, Calendar.DECEMBER, 20), source, 2, DIRECT);
+        limiter.setOnMonthLoadedListener(new PagedDateRangeLimiter.OnMonthLoadedListener() {
+            @Override
+            public void onMonthLoaded(int year, int month) {
+                loadedMonths.add(year * 12 + month);
+            }
+        });
+    }
+
+    @Test
+    public void unloadedMonthShouldBeOutOfRangeAndRequestedOnce() {
+        assertTrue(limiter.isOutOfRange(2018, Calendar.MARCH, 1));
+        assertTrue(limiter.isOutOfRange(2018, Calendar.MARCH, 2));
+        assertEquals(1, source.requests.size());
+        assertFalse(limiter.isLoaded(2018, Calendar.MARCH));
+    }
+
+    @Test
+    public void loadedMonthShouldAnswerFromItsMask() {
+        limiter.isOutOfRange(2018, Calendar.MARCH, 1);
+        source.answer(0, 1 << 4);
+
+        assertTrue(limiter.isLoaded(2018, Calendar.MARCH));
+        assertFalse(limiter.isOutOfRange(2018, Calendar.MARCH, 5));
+        assertTrue(limiter.isOutOfRange(2018, Calendar.MARCH, 6));
+        assertEquals(1, loadedMonths.size());
+        assertEquals(2018 * 12 + Calendar.MARCH, (int) loadedMonths.get(0));
+    }
+
+    @Test
+    public void manyPendingMonthsShouldEachBeRequestedOnce() {
+        for (int pass = 0; pass < 2; pass++) {
+            for (int month = 0; month < 20; month++) {
+                limiter.getPendingMask(2018 + month / 12, month % 12);
+            }
+        }
+        assertEquals(20, source.requests.size());
+
+        // An answered month which got evicted is requested again, the others are still pending
+        source.answer(3, -1);
+        source.answer(4, -1);
+        source.answer(5, -1);
+        for (int month = 0; month < 20; month++) {
+            limiter.getPendingMask(2018 + month / 12, month % 12);
+        }
+        assertEquals(21, source.requests.size());
+        assertEquals(2018 * 12 + 3, source.requests.get(20)[0] * 12 + source.requests.get(20)[1]);
+    }
+
+    @Test
+    public void pickerListenerShouldNotReplaceTheAppListener() {
+        final List<Integer> pickerMonths = new ArrayList<>();
+        limiter.setPickerListener(new PagedDateRangeLimiter.OnMonthLoadedListener() {
+            @Override
+            public void onMonthLoaded(int year, int month) {
+                // Runs first, before the app hears about the month
+                assertTrue(loadedMonths.isEmpty());
+                pickerMonths.add(year * 12 + month);
+            }
+        });
+
+        limiter.isOutOfRange(2018, Calendar.MARCH, 1);
+        source.answer(0, 1);
+        assertEquals(1, pickerMonths.size());
+        assertEquals(1, loadedMonths.size());
+    }
+
+    @Test
+    public void daysOutsideOfStartAndEndShouldNotBeRequested() {
+        assertTrue(limiter.isOutOfRange(2017, Calendar.DECEMBER, 31));
+        assertTrue(limiter.isOutOfRange(2020, Calendar.JANUARY, 1));
+        assertEquals(0, source.requests.size());
+    }
+
+    @Test
+    public void outOfRangeMaskShouldClipToStartDate() {
+        limiter.getOutOfRangeMask(2018, Calendar.JANUARY);
+        source.answer(0, -1);
+
+        int mask = limiter.getOutOfRangeMask(2018, Calendar.JANUARY);
+        assertEquals((1 << 9) - 1, mask);
+    }
+
+    @Test
+    public void unloadedMonthShouldBePendingRatherThanOutOfRange() {
+        assertEquals(0, limiter.getOutOfRangeMask(2018, Calendar.MARCH));
+        assertEquals((1 << 31) - 1, limiter.getPendingMask(2018, Calendar.MARCH));
+        assertEquals(1, source.requests.size());
+
+        source.answer(0, 1 << 4);
+        assertEquals(0, limiter.getPendingMask(2018, Calendar.MARCH));
+        assertEquals(((1 << 31) - 1) & ~(1 << 4), limiter.getOutOfRangeMask(2018, Calendar.MARCH));
+    }
+
+    @Test
+    public void daysBeforeTheStartShouldNotBePending() {
+        // Days 1 to 9 are before the start date
+        assertEquals((1 << 9) - 1, limiter.getOutOfRangeMask(2018, Calendar.JANUARY));
+        assertEquals(((1 << 31) - 1) & ~((1 << 9) - 1), limiter.getPendingMask(2018, Calendar.JANUARY));
+        assertEquals(0, limiter.getPendingMask(2017, Calendar.DECEMBER));
+    }
+
+    @Test
+    public void leastRecentlyUsedMonthShouldBeEvicted() {
+        limiter.isOutOfRange(2018, Calendar.MARCH, 1);
+        limiter.isOutOfRange(2018, Calendar.APRIL, 1);
+        source.answer(0, -1);
+        source.answer(1, -1);
+
+        // Touch March so April becomes the least recently used month
+        limiter.isOutOfRange(2018, Calendar.MARCH, 1);
+        limiter.isOutOfRange(2018, Calendar.MAY, 1);
+        source.answer(2, -1);
+
+        assertTrue(limiter.isLoaded(2018, Calendar.MARCH));
+        assertFalse(limiter.isLoaded(2018, Calendar.APRIL));
+        assertTrue(limiter.isLoaded(2018, Calendar.MAY));
+    }
+
+    @Test
+    public void setToNearestDateShouldClampToStartAndEnd() {
+        Calendar before = limiter.setToNearestDate(date(2017, Calendar.JUNE, 1));
+        Calendar after = limiter.setToNearestDate(date(2021, Calendar.JUNE, 1));
+
+        assertEquals(EpochDay.of(2018, Calendar.JANUARY, 10), EpochDay.of(before));
+        assertEquals(EpochDay.of(2019, Calendar.DECEMBER, 20), EpochDay.of(after));
+    }
+}